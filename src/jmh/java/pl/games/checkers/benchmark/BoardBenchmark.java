@@ -0,0 +1,80 @@
+package pl.games.checkers.benchmark;
+
+import pl.games.checkers.ai.Evaluation;
+import pl.games.checkers.ai.EvaluationCache;
+import pl.games.checkers.ai.HeuristicRate;
+import pl.games.checkers.ai.MoveRate;
+import pl.games.checkers.ai.PawnMoveRecursive;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnBoard;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Operations on a single position: moves of pawns, rate and copy of the board.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+	/**
+	 * Moves of all pawns of pawn type to move.
+	 */
+	@Benchmark
+	public void nextMoves(Positions positions, Blackhole blackhole) {
+		for (Pawn pawn : positions.pawns) {
+			for (MoveRate moveRate : PawnMoveRecursive.getNextMoves(positions.board, pawn)) {
+				blackhole.consume(moveRate);
+			}
+		}
+	}
+
+	/**
+	 * Rate with beatings computed each time.
+	 */
+	@Benchmark
+	public long rate(Positions positions) {
+		return Evaluation.rate(positions.bitBoard, true);
+	}
+
+	/**
+	 * Rate with beatings from the evaluation cache, all lookups but the first one are hits.
+	 */
+	@Benchmark
+	public long rateCached(Positions positions) {
+		return EvaluationCache.getInstance().rate(positions.bitBoard);
+	}
+
+	@Benchmark
+	public long rateWithoutBeatings(Positions positions) {
+		return Evaluation.rate(positions.bitBoard, false);
+	}
+
+	/**
+	 * Rate of the board given to the AI: conversion to {@link pl.games.checkers.model.BitBoard}, tablebase probe
+	 * and the cached rate with beatings.
+	 */
+	@Benchmark
+	public long heuristicRate(Positions positions) {
+		return new HeuristicRate(positions.board, positions.pawnType).rate();
+	}
+
+	@Benchmark
+	public Board createPawnBoard(Positions positions) {
+		return PawnBoard.create(positions.board);
+	}
+
+}
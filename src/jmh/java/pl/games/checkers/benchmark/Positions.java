@@ -0,0 +1,93 @@
+package pl.games.checkers.benchmark;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnBoard;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Fixed positions of benchmarks: the initial one and {@link GameStates#BEAT}, a midgame and an endgame.
+ * Midgame and endgame are reached by seeded random games, so they are the same in each run.
+ */
+@State(Scope.Benchmark)
+public class Positions {
+
+	private static final long SEED = 1;
+	private static final int MIDGAME_PLIES = 16;
+	private static final int ENDGAME_PAWNS = 6;
+
+	@Param({ "INITIAL", "BEAT", "MIDGAME", "ENDGAME" })
+	public String position;
+
+	public Board<Pawn> board;
+	public BitBoard bitBoard; //the same position, as searched by the engine
+	public PawnType pawnType;
+	public List<Pawn> pawns; //pawns of pawn type to move
+
+	@Setup
+	public void setUp() {
+		switch (position) {
+			case "INITIAL":
+				board = create(GameStates.INITIAL.getInitState(), PawnType.BLACK);
+				break;
+			case "BEAT":
+				board = create(GameStates.BEAT.getInitState(), PawnType.BLACK);
+				break;
+			case "MIDGAME":
+				board = play(bitBoard -> false, MIDGAME_PLIES);
+				break;
+			case "ENDGAME":
+				board = play(bitBoard -> Integer.bitCount(bitBoard.occupied()) <= ENDGAME_PAWNS, Integer.MAX_VALUE);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown position " + position);
+		}
+		bitBoard = BitBoard.create(board);
+		pawnType = board.getTurn();
+		pawns = board.pawnsAsList().stream().filter(pawn -> pawn.getType() == pawnType).collect(Collectors.toList());
+	}
+
+	private static Board<Pawn> create(List<Pawn> pawnList, PawnType pawnType) {
+		Board<Pawn> board = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, pawnList);
+		board.setTurn(pawnType);
+		return board;
+	}
+
+	/**
+	 * Plays seeded random moves from the initial position until the condition holds or given plies are played.
+	 * Game which ends before is replayed with the next seed.
+	 */
+	private static Board<Pawn> play(Predicate<BitBoard> condition, int plies) {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		for (long seed = SEED; ; seed++) {
+			Random random = new Random(seed);
+			BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+			bitBoard.setTurn(PawnType.BLACK);
+			for (int ply = 0; ; ply++) {
+				int count = MoveGenerator.generate(bitBoard, bitBoard.getTurn(), moves);
+				if (count == 0) {
+					break;
+				}
+				if (ply == plies || condition.test(bitBoard)) {
+					return create(bitBoard.pawnsAsList(), bitBoard.getTurn());
+				}
+				bitBoard.makeMove(moves[random.nextInt(count)]);
+			}
+		}
+	}
+
+}
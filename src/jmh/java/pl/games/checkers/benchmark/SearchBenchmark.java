@@ -0,0 +1,45 @@
+package pl.games.checkers.benchmark;
+
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.ai.algorithm.Minimax;
+import pl.games.checkers.model.Pawn;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building of the whole game tree and {@link Minimax} on a lazy tree, which creates nodes while it searches,
+ * for depths 1-6.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({ "1", "2", "3", "4", "5", "6" })
+	public int depth;
+
+	@Benchmark
+	public GameTree buildTree(Positions positions) {
+		return new GameTree(positions.board, positions.pawnType, depth).buildTree();
+	}
+
+	@Benchmark
+	public Pawn minimax(Positions positions) {
+		return new Minimax().nextMove(new GameTree(positions.board, positions.pawnType, depth).lazy());
+	}
+
+}
@@ -0,0 +1,23 @@
+package pl.games.checkers;
+
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.protocol.Protocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headless entry point: AI driven by {@link Protocol} over standard input and output, JavaFX is never loaded.
+ * Run by gradle task runEngine or with this class as the main class of the classpath without JavaFX.
+ * Log is written to directory logs of the working directory, system property checkers.log.dir sets another one.
+ */
+public class CheckersEngine {
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        new Protocol(System.out, EngineExecutor.getInstance()).run(in);
+    }
+
+}
@@ -4,16 +4,26 @@ import pl.games.checkers.model.Board;
 import pl.games.checkers.model.Pawn;
 import pl.games.checkers.model.PawnType;
 import pl.games.checkers.model.Position;
+import pl.games.checkers.model.Squares;
 import pl.games.checkers.ui.Checkerboard;
 
-import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
+/**
+ * Rules as predicates. Predicates which do not depend on arguments are created once,
+ * squares between positions are taken from {@link Squares} tables.
+ */
 public class Rules {
 
+    private static final Predicate<Position> ON_BOARD = isOnBoard(0, Checkerboard.WIDTH, 0, Checkerboard.HEIGHT);
+    private static final Predicate<Position> POSITION_ALLOWED = position -> (position.column() + position.row()) % 2 != 0;
+    private static final Predicate<Pawn> LAST_ROW = (Pawn pawn) ->
+            (pawn.getType() == PawnType.WHITE && pawn.currentPosition().row() == 0) ||
+                    (pawn.getType() == PawnType.BLACK && pawn.currentPosition().row() == Checkerboard.HEIGHT - 1);
+    private static final Predicate<Pawn> KING = Pawn::isKing;
+
     public static Predicate<Position> isOnBoard() {
-        return isOnBoard(0, Checkerboard.WIDTH, 0, Checkerboard.HEIGHT);
+        return ON_BOARD;
     }
 
     private static Predicate<Position> isOnBoard(int startX, int endX, int startY, int endY) {
@@ -27,12 +37,11 @@ public class Rules {
     }
 
     public static Predicate<Position> isPositionAllowed() {
-        return position -> (position.column() + position.row()) % 2 != 0;
+        return POSITION_ALLOWED;
     }
 
     public static Predicate<Pawn> isLastRow() {
-        return (Pawn pawn) -> (pawn.getType() == PawnType.WHITE && pawn.nextPosition().row() == 0) ||
-                    (pawn.getType() == PawnType.BLACK && pawn.nextPosition().row() == Checkerboard.HEIGHT - 1);
+        return LAST_ROW;
     }
 
     public static Predicate<Pawn> isOpponent(Pawn pawn) {
@@ -40,7 +49,7 @@ public class Rules {
     }
 
     public static Predicate<Pawn> isKing() {
-        return (Pawn pawn) -> pawn.isKing();
+        return KING;
     }
 
     public static Predicate<Position> isDiagonalMove(Pawn pawn) {
@@ -59,17 +68,31 @@ public class Rules {
     }
 
     private static Predicate<Position> isBeatingAlly(Board board, Pawn pawn) {
-        return nextPosition -> streamPawnMoves(board, pawn, nextPosition)
-                .filter(Rules.isOpponent(pawn).negate())
-                .limit(1)
-                .count() > 0;
+        return nextPosition -> countPawnsBetween(board, pawn, nextPosition, pawn.getType()) > 0;
     }
 
     private static long numberOfOpponentsToBeat(Board board, Pawn pawn, Position nextPosition) {
-        return streamPawnMoves(board, pawn, nextPosition)
-                .filter(Rules.isOpponent(pawn))
-                .limit(2)
-                .count();
+        return countPawnsBetween(board, pawn, nextPosition, pawn.getType().negate());
+    }
+
+    /**
+     * @return number of pawns of the type between current position of the pawn and the next position
+     */
+    private static int countPawnsBetween(Board board, Pawn pawn, Position nextPosition, PawnType type) {
+        int from = Squares.index(pawn.currentPosition());
+        int to = Squares.index(nextPosition);
+        if (from == Squares.NONE || to == Squares.NONE) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int between = Squares.between(from, to); between != 0; between &= between - 1) {
+            int square = Integer.numberOfTrailingZeros(between);
+            if (board.typeAt(Squares.row(square), Squares.column(square)) == type) {
+                count++;
+            }
+        }
+        return count;
     }
 
     private static int getChangeWidth(Pawn pawn, Position position) {
@@ -87,23 +110,4 @@ public class Rules {
         return colDiff;
     }
 
-    private static Stream<Pawn> streamPawnMoves(Board board, Pawn pawn, Position nextPosition) {
-        Position currentPosition = pawn.currentPosition();
-        int hDir = horizontalDirection(currentPosition, nextPosition);
-        int vDir = verticalDirection(currentPosition, nextPosition);
-
-        return Stream.iterate(currentPosition.increment(vDir, hDir), p -> !p.equals(nextPosition), p -> p.increment(vDir, hDir))
-                .limit(Checkerboard.WIDTH)
-                .map(p -> board.getPawn(p))
-                .filter(Objects::nonNull);
-    }
-
-    private static int horizontalDirection(Position currentPosition, Position nextPosition) {
-        return Integer.compare(nextPosition.column(), currentPosition.column());
-    }
-
-    private static int verticalDirection(Position currentPosition, Position nextPosition) {
-        return Integer.compare(nextPosition.row(), currentPosition.row());
-    }
-
 }
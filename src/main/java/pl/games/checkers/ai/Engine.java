@@ -0,0 +1,194 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.ai.algorithm.AlphaBeta;
+import pl.games.checkers.ai.algorithm.LazySmp;
+import pl.games.checkers.ai.algorithm.SearchProgress;
+import pl.games.checkers.ai.algorithm.SearchStatistics;
+import pl.games.checkers.ai.book.OpeningBook;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous AI: searches for a move in {@link EngineExecutor}, so the calling thread, e.g. UI thread, is not blocked.
+ * Position is copied when a move is requested, so the board may be changed while AI thinks.
+ * Cancelling the returned future stops the search. A new request cancels the previous one.
+ * While the opponent thinks, AI may ponder: search the position after the reply it expects.
+ * If the opponent plays it, pondering search goes on as the search for the next move,
+ * otherwise it is cancelled and only its results kept in the transposition table are used.
+ * Positions of {@link OpeningBook} are not searched, the move is chosen from the book at once.
+ * Statistics of each search, pondering included, are passed to listeners, by default to {@link SearchMonitor}.
+ */
+public class Engine {
+
+	private final EngineExecutor executor;
+	private final LazySmp search; //keeps transposition table between moves
+	private final OpeningBook book;
+	private final List<Consumer<SearchStatistics>> listeners = new CopyOnWriteArrayList<>();
+	private CompletableFuture<Pawn> current;
+	private long ponderHash; //hash of the position pondered by the current search, 0 if it does not ponder
+	private AtomicBoolean ponderHit;
+	private AtomicReference<Consumer<SearchProgress>> progress; //of the current search, it is set by ponder hit
+
+	public Engine(Duration thinkingTime) {
+		this(EngineExecutor.getInstance(), thinkingTime);
+	}
+
+	public Engine(EngineExecutor executor, Duration thinkingTime) {
+		this(executor, thinkingTime, OpeningBook.getInstance());
+	}
+
+	public Engine(EngineExecutor executor, Duration thinkingTime, OpeningBook book) {
+		this.executor = executor;
+		this.search = new LazySmp(executor, executor.getThreads(), thinkingTime, AlphaBeta.DEFAULT_TABLE_SIZE);
+		this.book = book;
+		listeners.add(SearchMonitor.getInstance());
+	}
+
+	/**
+	 * @param listener called by an engine thread after each search, finished or cancelled
+	 */
+	public void addListener(Consumer<SearchStatistics> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<SearchStatistics> listener) {
+		listeners.remove(listener);
+	}
+
+	public CompletableFuture<Pawn> nextMove(Board board, PawnType pawnType) {
+		return nextMove(board, pawnType, p -> {});
+	}
+
+	/**
+	 * @param progress called by an engine thread after each completed iteration of the search
+	 * @return future of the move or of null if pawn type has no move
+	 */
+	public synchronized CompletableFuture<Pawn> nextMove(Board board, PawnType pawnType, Consumer<SearchProgress> progress) {
+		BitBoard position = BitBoard.create(board);
+		position.setTurn(pawnType);
+
+		if (ponderHash != 0L && ponderHash == position.hash() && !current.isDone()) {
+			this.progress.set(progress);
+			ponderHit.set(true);
+			search.ponderHit();
+			ponderHash = 0L;
+			return current;
+		}
+
+		long bookMove = book.move(position, ThreadLocalRandom.current());
+		if (bookMove != BitMove.NONE) {
+			cancel();
+			current = CompletableFuture.completedFuture(MoveGenerator.toPawn(position, bookMove));
+			return current;
+		}
+		return submit(position, progress, false);
+	}
+
+	/**
+	 * Starts pondering after the move of AI, it is stopped by the next request or by {@link #cancel()}.
+	 * Nothing is pondered if AI does not know which reply to expect.
+	 * @param pawnType pawn type of AI, the opponent is to move on the board
+	 * @return future of the pondering search, which is returned by {@link #nextMove(Board, PawnType, Consumer)}
+	 * if the opponent plays the expected reply, or null if nothing is pondered
+	 */
+	public synchronized CompletableFuture<Pawn> ponder(Board board, PawnType pawnType) {
+		cancel();
+		BitBoard position = BitBoard.create(board);
+		position.setTurn(pawnType.negate());
+		long reply = expectedMove(position);
+		if (reply == BitMove.NONE) {
+			return null;
+		}
+
+		position.makeMove(reply);
+		long hash = position.hash(); //position is searched in place once submitted
+		CompletableFuture<Pawn> pondering = submit(position, p -> {}, true);
+		ponderHash = hash;
+		return pondering;
+	}
+
+	/**
+	 * @return true if AI is searching for a move, pondering does not count
+	 */
+	public synchronized boolean isThinking() {
+		return current != null && !current.isDone() && ponderHash == 0L;
+	}
+
+	/**
+	 * @return true if AI ponders and the opponent has not played the expected reply yet
+	 */
+	public synchronized boolean isPondering() {
+		return current != null && !current.isDone() && ponderHash != 0L;
+	}
+
+	public synchronized void cancel() {
+		if (current != null) {
+			current.cancel(false);
+		}
+		ponderHash = 0L;
+	}
+
+	private CompletableFuture<Pawn> submit(BitBoard position, Consumer<SearchProgress> progress, boolean ponder) {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		AtomicBoolean hit = new AtomicBoolean();
+		AtomicReference<Consumer<SearchProgress>> consumer = new AtomicReference<>(progress);
+
+		cancel();
+		this.progress = consumer;
+		ponderHit = hit;
+		current = executor.submit(() -> {
+			synchronized (search) { //the previous search, if cancelled, is finishing
+				search.cancellation(cancelled::get).progress(p -> consumer.get().accept(p));
+				if (ponder) {
+					search.ponder();
+					if (hit.get()) { //hit came before the search started
+						search.ponderHit();
+					}
+				}
+				long move = search.search(position, AlphaBeta.MAX_DEPTH);
+				SearchStatistics statistics = search.getStatistics();
+				listeners.forEach(listener -> listener.accept(statistics));
+				return MoveGenerator.toPawn(position, move);
+			}
+		}, () -> cancelled.set(true));
+		return current;
+	}
+
+	/**
+	 * @return the best move of pawn type to move found by the previous searches or {@link BitMove#NONE}
+	 */
+	long expectedMove(BitBoard position) {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(position, position.getTurn(), moves);
+		if (count == 1) {
+			return moves[0];
+		}
+		long entry = search.getTable() != null ? search.getTable().probe(position.hash()) : 0L;
+		for (int i = 0; i < count && entry != 0L; i++) {
+			if (TranspositionTable.isBestMove(entry, moves[i])) {
+				return moves[i];
+			}
+		}
+		return BitMove.NONE;
+	}
+
+	/**
+	 * @return transposition table kept between moves
+	 */
+	TranspositionTable getTable() {
+		return search.getTable();
+	}
+
+}
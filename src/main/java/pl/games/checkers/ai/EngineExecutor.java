@@ -0,0 +1,118 @@
+package pl.games.checkers.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of daemon threads which runs AI, so it does not compete with other users of the common pool.
+ * Number of threads is given by system property {@value #THREADS_PROPERTY}, by default it is number of processors.
+ * Work is split at the root only: tasks do not wait for other tasks, tasks submitted by an engine thread
+ * are executed by that thread. Tasks are cancelled cooperatively, see {@link #submit(Supplier, Runnable)}.
+ */
+public final class EngineExecutor {
+
+	public static final String THREADS_PROPERTY = "checkers.engine.threads";
+
+	private static final EngineExecutor INSTANCE = new EngineExecutor(
+			Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+	private static final ThreadLocal<EngineExecutor> CURRENT = new ThreadLocal<>();
+
+	private final int threads;
+	private final ExecutorService executor;
+
+	public EngineExecutor(int threads) {
+		this.threads = Math.max(1, threads);
+		this.executor = Executors.newFixedThreadPool(this.threads, new EngineThreadFactory(this));
+	}
+
+	public static EngineExecutor getInstance() {
+		return INSTANCE;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return true if current thread belongs to this executor
+	 */
+	public boolean isEngineThread() {
+		return CURRENT.get() == this;
+	}
+
+	/**
+	 * Runs task asynchronously. Cancellation of the returned future does not interrupt the thread,
+	 * it calls the cancellation, which should make the task finish soon, e.g. stop a search.
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> task, Runnable cancellation) {
+		CompletableFuture<T> future = CompletableFuture.supplyAsync(task, executor);
+		future.whenComplete((result, error) -> {
+			if (future.isCancelled()) {
+				cancellation.run();
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Runs tasks in parallel and waits for all of them. Called by an engine thread, runs them one by one instead,
+	 * so engine threads never block waiting for each other.
+	 */
+	public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<>(tasks.size());
+		try {
+			if (isEngineThread() || threads == 1) {
+				for (Callable<T> task : tasks) {
+					results.add(task.call());
+				}
+				return results;
+			}
+			for (Future<T> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("AI was interrupted");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("AI task failed", e.getCause());
+		} catch (Exception e) {
+			throw new IllegalStateException("AI task failed", e);
+		}
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static class EngineThreadFactory implements ThreadFactory {
+
+		private final EngineExecutor engineExecutor;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private EngineThreadFactory(EngineExecutor engineExecutor) {
+			this.engineExecutor = engineExecutor;
+		}
+
+		@Override public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(() -> {
+				CURRENT.set(engineExecutor);
+				runnable.run();
+			}, "checkers-engine-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
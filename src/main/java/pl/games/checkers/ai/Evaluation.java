@@ -0,0 +1,122 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+/**
+ * Scores of {@link HeuristicRate} computed from bit masks of {@link BitBoard}.
+ * Material and position of pawns are a sum of values of single pawns on their squares,
+ * so the board keeps it up to date on every change (see {@link BitBoard#material()}) and rating costs O(1).
+ * Beatings are found with precomputed {@link Squares} tables, without generating moves.
+ * All scores are from point of view of {@link PawnType#BLACK}.
+ */
+public final class Evaluation {
+
+	public static final int SCORE_FOR_PAWN = 5;
+	public static final int KING_SCORE = 15;
+	public static final int BEATING_SCORE = 10;
+	public static final int BEATING_KING_SCORE = 15;
+	public static final int NO_OPPONENTS_SCORE = 1000;
+
+	private static final int[] MAN_VALUES = new int[Squares.COUNT];
+
+	static {
+		for (int square = 0; square < Squares.COUNT; square++) {
+			int column = Squares.column(square);
+			int row = Squares.row(square);
+			int scoreForColumn = column > 1 && column < 6 ? 2 : 1;
+			int scoreForRow = row > 1 && row < 6 ? 2 : 1;
+			MAN_VALUES[square] = SCORE_FOR_PAWN + scoreForColumn + scoreForRow;
+		}
+	}
+
+	private Evaluation() {
+	}
+
+	/**
+	 * @return value of the pawn on the square, negative for {@link PawnType#WHITE}
+	 */
+	public static int value(PawnType pawnType, boolean king, int square) {
+		int value = king ? SCORE_FOR_PAWN + KING_SCORE : MAN_VALUES[square];
+		return pawnType == PawnType.BLACK ? value : -value;
+	}
+
+	/**
+	 * Computes material and position of all pawns from scratch, the board keeps it incrementally.
+	 */
+	public static int material(int black, int white, int kings) {
+		int material = 0;
+		for (int mask = black | white; mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			int bit = Squares.bit(square);
+			material += value((black & bit) != 0 ? PawnType.BLACK : PawnType.WHITE, (kings & bit) != 0, square);
+		}
+		return material;
+	}
+
+	/**
+	 * @param rateBeatings false skips scores for possible beatings;
+	 *                     for searches which do not rate positions until there is no beating
+	 */
+	public static long rate(BitBoard board, boolean rateBeatings) {
+		long rate = board.material();
+		if (board.white() == 0) { //all opponents are beaten
+			rate += NO_OPPONENTS_SCORE;
+		}
+		if (board.black() == 0) {
+			rate -= NO_OPPONENTS_SCORE;
+		}
+		if (rateBeatings) {
+			rate += beatings(board, PawnType.BLACK) - beatings(board, PawnType.WHITE);
+		}
+		return rate;
+	}
+
+	/**
+	 * @return sum of scores of pawns which can beat: {@link #BEATING_KING_SCORE} if a king can be beaten,
+	 * {@link #BEATING_SCORE} otherwise
+	 */
+	public static int beatings(BitBoard board, PawnType pawnType) {
+		int opponents = board.pawns(pawnType.negate());
+		int empty = ~board.occupied();
+		int score = 0;
+
+		for (int mask = board.pawns(pawnType); mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			int victims = (board.kings() & Squares.bit(square)) != 0
+					? kingVictims(square, empty, opponents) : manVictims(square, empty, opponents);
+			if (victims != 0) {
+				score += (victims & board.kings()) != 0 ? BEATING_KING_SCORE : BEATING_SCORE;
+			}
+		}
+		return score;
+	}
+
+	private static int manVictims(int square, int empty, int opponents) {
+		int victims = 0;
+		for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+			int jump = Squares.jump(square, direction);
+			if (jump != Squares.NONE && (empty & Squares.bit(jump)) != 0) {
+				victims |= opponents & Squares.bit(Squares.neighbour(square, direction));
+			}
+		}
+		return victims;
+	}
+
+	private static int kingVictims(int square, int empty, int opponents) {
+		int victims = 0;
+		for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+			int[] ray = Squares.ray(square, direction);
+			int i = 0;
+			while (i < ray.length && (empty & Squares.bit(ray[i])) != 0) {
+				i++;
+			}
+			if (i + 1 < ray.length && (empty & Squares.bit(ray[i + 1])) != 0) {
+				victims |= opponents & Squares.bit(ray[i]);
+			}
+		}
+		return victims;
+	}
+
+}
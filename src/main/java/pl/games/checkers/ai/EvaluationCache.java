@@ -0,0 +1,90 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size cache of rates with beatings (see {@link Evaluation#rate(BitBoard, boolean)}), shared by all threads.
+ * Key is the board hash, which includes the pawn type to move. Like {@link TranspositionTable}, each entry
+ * takes two longs: hash xor data and data, so it is lock-free and an entry torn by concurrent writes is not matched.
+ * Cache is direct-mapped: a new entry evicts the entry of another position from its slot.
+ * Size is given in MB by system property {@value #SIZE_PROPERTY}.
+ * Rate without beatings is kept by the board itself, so it is not cached.
+ */
+public final class EvaluationCache {
+
+	public static final String SIZE_PROPERTY = "checkers.engine.evaluationCache";
+	public static final int DEFAULT_SIZE = 4; //MB
+
+	private static final EvaluationCache INSTANCE = new EvaluationCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+	private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+	private final long[] entries;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public EvaluationCache(int megabytes) {
+		long capacity = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / ENTRY_BYTES));
+		capacity = Math.min(capacity, 1 << 29);
+		this.entries = new long[(int) capacity * 2];
+		this.mask = (int) capacity - 1;
+	}
+
+	public static EvaluationCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return rate of the board with beatings, from the cache or computed and stored
+	 */
+	public long rate(BitBoard board) {
+		long hash = board.hash();
+		int index = ((int) (hash ^ (hash >>> 32)) & mask) * 2;
+		long data = entries[index + 1];
+		if ((entries[index] ^ data) == hash && data != 0L) {
+			hits.increment();
+			return data >> 1;
+		}
+
+		misses.increment();
+		long rate = Evaluation.rate(board, true);
+		data = rate << 1 | 1; //data of an entry is never 0
+		entries[index] = hash ^ data;
+		entries[index + 1] = data;
+		return rate;
+	}
+
+	public void clear() {
+		Arrays.fill(entries, 0L);
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return part of lookups answered by the cache, 0 if there was none
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	public void resetCounters() {
+		hits.reset();
+		misses.reset();
+	}
+
+}
@@ -0,0 +1,27 @@
+package pl.games.checkers.ai;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of rating all children of a {@link GameTree} node.
+ */
+@Name("pl.games.checkers.Evaluation")
+@Label("Evaluation Batch")
+@Description("Children of a game tree node created and rated together")
+@Category({ "Checkers", "Engine" })
+@Enabled(false)
+final class EvaluationEvent extends Event {
+
+	@Label("Depth")
+	@Description("Remaining depth of the node")
+	int depth;
+
+	@Label("Evaluations")
+	int evaluations;
+
+}
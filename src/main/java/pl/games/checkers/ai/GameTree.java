@@ -2,24 +2,22 @@ package pl.games.checkers.ai;
 
 import pl.games.checkers.model.Board;
 import pl.games.checkers.model.Pawn;
-import pl.games.checkers.model.PawnBoard;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
 import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
-import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public class GameTree extends RecursiveAction implements Iterable<GameTree>, Rate {
+public class GameTree implements Iterable<GameTree>, Rate {
 
-	private static final ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
 	private static final int DEFAULT_DEPTH = 1;
 
 	private final int depth;
@@ -29,6 +27,7 @@ public class GameTree extends RecursiveAction implements Iterable<GameTree>, Rat
 	private final HeuristicRate heuristicRate;
 
 	private Optional<Pawn> constraint = Optional.empty(); //build game tree with first move limited to this pawn
+	private boolean lazy = false; //children are created when iterated, see lazy()
 
 	public GameTree(final Board board, final PawnType pawnType) {
 		this(board, pawnType, DEFAULT_DEPTH);
@@ -43,7 +42,7 @@ public class GameTree extends RecursiveAction implements Iterable<GameTree>, Rat
 	}
 
 	public GameTree(final Board board, final Pawn pawn, int depth, List<GameTree> nodes, HeuristicRate heuristicRate) {
-		this.board = PawnBoard.create(board);
+		this.board = BitBoard.create(board).setTurn(heuristicRate.getPawnType());
 		this.pawn = pawn;
 		this.depth = depth;
 		this.nodes = nodes;
@@ -55,23 +54,49 @@ public class GameTree extends RecursiveAction implements Iterable<GameTree>, Rat
 		return this;
 	}
 
+	/**
+	 * Switches tree to lazy expansion: children are created one by one when the tree is iterated and are not kept,
+	 * so subtrees skipped by alpha-beta cutoffs are never created. Each move is a whole chain of beatings,
+	 * so pawn type changes on every level. Lazy tree is iterated by the algorithm instead of being built.
+	 */
+	public GameTree lazy() {
+		this.lazy = true;
+		return this;
+	}
+
+	/**
+	 * Builds the whole tree. Subtrees of the root children are built in parallel by {@link EngineExecutor},
+	 * each of them by one thread. Build is recorded by flight recorder as {@link TreeBuildEvent}.
+	 */
 	public GameTree buildTree() {
-		forkJoinPool.submit(this).join();
+		TreeBuildEvent event = new TreeBuildEvent();
+		event.begin();
+		EngineExecutor.getInstance().invokeAll(build().stream()
+				.map(node -> (Callable<GameTree>) node::buildSubtree)
+				.collect(Collectors.toList()));
+		if (event.shouldCommit()) {
+			event.depth = depth;
+			event.nodes = size();
+			event.commit();
+		}
 		return this;
 	}
 
-	@Override protected void compute() {
-		ForkJoinTask.invokeAll(build()).stream()
-				.map(ForkJoinTask::join)
-				.collect(Collectors.toList());
+	private GameTree buildSubtree() {
+		build().forEach(GameTree::buildSubtree);
+		return this;
 	}
 
 	@Override public Iterator<GameTree> iterator() {
-		return nodes.iterator();
+		return lazy ? new LazyIterator() : nodes.iterator();
 	}
 
 	@Override public void forEach(Consumer<? super GameTree> action) {
-		nodes.forEach(action);
+		if (lazy) {
+			iterator().forEachRemaining(action);
+		} else {
+			nodes.forEach(action);
+		}
 	}
 
 	@Override public Long rate() {
@@ -86,82 +111,102 @@ public class GameTree extends RecursiveAction implements Iterable<GameTree>, Rat
 		return board;
 	}
 
+	public int getDepth() {
+		return depth;
+	}
+
 	public PawnType getPawnType() {
 		return heuristicRate.getPawnType();
 	}
 
+	/**
+	 * Creates all children, each move is a whole chain of beatings generated by {@link MoveGenerator}.
+	 * Rating of the children is recorded by flight recorder as {@link EvaluationEvent}.
+	 */
 	private List<GameTree> build() {
-		if (depth <= 0) {
-			return List.of();
-		}
-
-		final List<Pawn> pawnList = new ArrayList<>();
-		if (constraint.isPresent()) {
-			pawnList.add(constraint.get().copy());
-		} else {
-			board.pawnsAsList().stream()
-					.filter(Objects::nonNull)
-					.filter(p -> ((Pawn) p).getType() == getPawnType())
-					.forEach(p -> pawnList.add((Pawn) p));
+		EvaluationEvent event = new EvaluationEvent();
+		event.begin();
+		BitBoard board = BitBoard.create(this.board);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = generate(board, moves);
+
+		for (int i = 0; i < count; i++) {
+			GameTree gameTree = child(board, moves[i]);
+			gameTree.rate();
+			nodes.add(gameTree);
 		}
-
-		boolean beating = false;
-		for (Pawn pawn : pawnList) {
-			if (updateNodes(beating, PawnBoard.create(board), pawn)) {
-				beating = true;
-			}
+		if (event.shouldCommit()) {
+			event.depth = depth;
+			event.evaluations = count;
+			event.commit();
 		}
-
 		return nodes;
 	}
 
 	/**
-	 *
-	 * @param beating if true then only moves with beating are taking into account
-	 * @param board state of board
-	 * @param pawn the pawn of which moves will be analyzed
+	 * @return number of nodes of the built tree, the root included
 	 */
-	private boolean updateNodes(boolean beating, Board board, Pawn pawn) {
-		List<Pawn> pawnNextMoves = PawnMoveRecursive.getNextMoves(PawnBoard.create(board), pawn).stream()
-				.filter(Objects::nonNull)
-				.map(MoveRate::getPawn)
-				.filter(Objects::nonNull)
-				.collect(Collectors.toList());
-
-		boolean hasBeating = pawnNextMoves.stream().filter(Pawn::hasBeating).findAny().isPresent();
-
-		if (hasBeating && !beating) { //first beating everything before is unimportant
-			beating = true;
-			Iterator<GameTree> gameTree = this.iterator();
-			while (gameTree.hasNext()) {
-				gameTree.next();
-				gameTree.remove();
-			}
+	private long size() {
+		long size = 1;
+		for (GameTree node : nodes) {
+			size += node.size();
 		}
+		return size;
+	}
 
-		for (Pawn pawnNext : pawnNextMoves) {
-			if (!beating || (beating && pawnNext.hasBeating())) {
-				Pawn copy = pawnNext.copy();
-				addNode(PawnBoard.create(board).move(pawnNext, pawnNext.nextPosition(), true), copy);
+	/**
+	 * @return number of legal moves of the node, limited to the constraint pawn if it is set
+	 */
+	private int generate(BitBoard board, long[] moves) {
+		int count = depth > 0 ? MoveGenerator.generate(board, getPawnType(), moves) : 0;
+		if (constraint.isPresent()) {
+			int from = Squares.index(constraint.get().currentPosition());
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				if (BitMove.from(moves[i]) == from) {
+					moves[kept++] = moves[i];
+				}
 			}
+			count = kept;
 		}
-		return beating && hasBeating;
+		return count;
+	}
+
+	private GameTree child(BitBoard board, long move) {
+		Pawn pawn = MoveGenerator.toPawn(board, move);
+
+		board.makeMove(move);
+		GameTree gameTree = new GameTree(board, getPawnType().negate(), pawn, depth - 1);
+		board.unmakeMove(move);
+
+		return gameTree;
 	}
 
 	/**
-	 * @param board Board to add as a child
-	 * @return added child
+	 * Generates moves of the node at once, but creates a child only when it is requested.
 	 */
-	private GameTree addNode(Board board, Pawn pawn) {
-		GameTree gameTree;
-		if (pawn.hasBeating()) {
-			gameTree = new GameTree(board, getPawnType(), pawn, depth - 1);
-		} else {
-			gameTree = new GameTree(board, getPawnType().negate(), pawn, depth - 1);
+	private class LazyIterator implements Iterator<GameTree> {
+
+		private final BitBoard board = BitBoard.create(GameTree.this.board);
+		private final long[] moves = new long[MoveGenerator.MAX_MOVES];
+		private final int count;
+		private int next = 0;
+
+		private LazyIterator() {
+			count = generate(board, moves);
 		}
-		gameTree.rate();
-		this.nodes.add(gameTree);
-		return gameTree;
+
+		@Override public boolean hasNext() {
+			return next < count;
+		}
+
+		@Override public GameTree next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return child(board, moves[next++]).lazy();
+		}
+
 	}
 
 }
@@ -0,0 +1,257 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Move;
+import pl.games.checkers.model.MoveType;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Position;
+import pl.games.checkers.model.Squares;
+
+import java.util.Arrays;
+
+/**
+ * Generates legal moves of {@link BitBoard} as {@link BitMove}s into an array given by caller, so search does not allocate.
+ * Beating is obligatory and a move with beating is a whole chain, which ends when pawn cannot beat anymore.
+ * Beaten pawns stay on the board until the chain is finished, so they cannot be beaten twice.
+ * Mere pawns walk forward and beat in all directions, kings walk and beat along whole diagonals.
+ * Diagonals are taken from precomputed {@link Squares} tables.
+ */
+public final class MoveGenerator {
+
+	public static final int MAX_MOVES = 256;
+
+	private MoveGenerator() {
+	}
+
+	/**
+	 * @return number of moves written to the array
+	 */
+	public static int generate(BitBoard board, PawnType pawnType, long[] moves) {
+		int count = generateBeatings(board, pawnType, moves);
+		if (count == 0) {
+			count = generateWalks(board, pawnType, moves);
+		}
+		return count;
+	}
+
+	public static int generateBeatings(BitBoard board, PawnType pawnType, long[] moves) {
+		int own = board.pawns(pawnType);
+		int opponents = board.pawns(pawnType.negate());
+		int count = 0;
+
+		for (int mask = own; mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			boolean king = (board.kings() & Squares.bit(square)) != 0;
+			int empty = ~(own | opponents) | Squares.bit(square);
+			count = beat(square, square, king, empty, opponents, 0, moves, count, count);
+		}
+		return count;
+	}
+
+	public static int generateWalks(BitBoard board, PawnType pawnType, long[] moves) {
+		int empty = ~board.occupied();
+		int count = 0;
+
+		for (int mask = board.pawns(pawnType); mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			boolean king = (board.kings() & Squares.bit(square)) != 0;
+			for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+				if (king) {
+					for (int next : Squares.ray(square, direction)) {
+						if ((empty & Squares.bit(next)) == 0) {
+							break;
+						}
+						count = add(moves, count, count, BitMove.of(square, next, 0));
+					}
+				} else if (Squares.rowStep(direction) == pawnType.getDirection()) {
+					int next = Squares.neighbour(square, direction);
+					if (next != Squares.NONE && (empty & Squares.bit(next)) != 0) {
+						count = add(moves, count, count, BitMove.of(square, next, 0));
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return squares where pawn lands after each beating of the move, the last one is destination of the move
+	 */
+	public static int[] path(BitBoard board, long move) {
+		if (!BitMove.hasBeating(move)) {
+			return new int[] { BitMove.to(move) };
+		}
+
+		int from = BitMove.from(move);
+		boolean king = (board.kings() & Squares.bit(from)) != 0;
+		int empty = ~board.occupied() | Squares.bit(from);
+		int[] path = new int[Integer.bitCount(BitMove.captured(move))];
+
+		return findPath(from, king, empty, BitMove.captured(move), BitMove.to(move), 0, path) ? path : null;
+	}
+
+	/**
+	 * @return pawn with next position set to the square where it lands first;
+	 * move of the pawn keeps the whole chain of beatings, which is finished by {@link pl.games.checkers.model.Board#move}
+	 */
+	public static Pawn toPawn(BitBoard board, long move) {
+		if (move == BitMove.NONE) {
+			return null;
+		}
+
+		int from = BitMove.from(move);
+		int next = path(board, move)[0];
+		Pawn pawn = board.getPawn(Squares.position(from));
+		pawn.nextPosition(Squares.position(next));
+		if (BitMove.hasBeating(move)) {
+			int victim = Squares.between(from, next) & BitMove.captured(move);
+			pawn.setMove(new Move(MoveType.KILL, board.getPawn(Squares.position(Integer.numberOfTrailingZeros(victim))), move));
+		} else {
+			pawn.setMove(new Move(MoveType.MOVE, null, move));
+		}
+		return pawn;
+	}
+
+	/**
+	 * Parses move in numeric notation of {@link BitMove#notation(long)}: squares numbered from 1, "from-to" for a walk
+	 * and "fromxto" for a beating, optionally with squares where pawn lands between, e.g. "1x10x19".
+	 * @return legal move of pawn type to move which goes through the squares or {@link BitMove#NONE}
+	 */
+	public static long parse(BitBoard board, String notation) {
+		int[] squares;
+		try {
+			squares = Arrays.stream(notation.split("[-x]")).mapToInt(square -> Integer.parseInt(square) - 1).toArray();
+		} catch (NumberFormatException e) {
+			return BitMove.NONE;
+		}
+		if (squares.length < 2) {
+			return BitMove.NONE;
+		}
+		long[] moves = new long[MAX_MOVES];
+		int count = generate(board, board.getTurn(), moves);
+		for (int i = 0; i < count; i++) {
+			long move = moves[i];
+			if (BitMove.from(move) != squares[0] || BitMove.to(move) != squares[squares.length - 1]) {
+				continue;
+			}
+			if (squares.length == 2 || Arrays.equals(path(board, move), Arrays.copyOfRange(squares, 1, squares.length))) {
+				return move;
+			}
+		}
+		return BitMove.NONE;
+	}
+
+	/**
+	 * Finds the whole move which starts with the pawn jumping to the next position.
+	 * Move kept by the pawn is preferred, otherwise the move rated best for the pawn type is chosen.
+	 * @return the move or {@link BitMove#NONE} if there is no such legal move
+	 */
+	public static long findMove(BitBoard board, Pawn pawn, Position nextPosition) {
+		int from = Squares.index(pawn.currentPosition());
+		int next = Squares.index(nextPosition);
+		long known = pawn.getMove() != null ? pawn.getMove().bitMove() : BitMove.NONE;
+		long[] moves = new long[MAX_MOVES];
+		int count = generate(board, pawn.getType(), moves);
+
+		long best = BitMove.NONE;
+		long bestRate = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			long move = moves[i];
+			if (BitMove.from(move) != from || path(board, move)[0] != next) {
+				continue;
+			}
+			if (move == known) {
+				return move;
+			}
+			board.makeMove(move);
+			long rate = Evaluation.rate(board, false);
+			board.unmakeMove(move);
+			rate = pawn.getType() == PawnType.BLACK ? rate : -rate;
+			if (rate > bestRate) {
+				bestRate = rate;
+				best = move;
+			}
+		}
+		return best;
+	}
+
+	private static int beat(int from, int square, boolean king, int empty, int opponents, int captured,
+			long[] moves, int first, int count) {
+		boolean extended = false;
+
+		for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+			int[] ray = Squares.ray(square, direction);
+			int victim = victimIndex(ray, king, empty);
+			if (victim == Squares.NONE || (opponents & ~captured & Squares.bit(ray[victim])) == 0) {
+				continue;
+			}
+			for (int i = victim + 1; i < ray.length && (empty & Squares.bit(ray[i])) != 0; i++) {
+				extended = true;
+				count = beat(from, ray[i], king, empty, opponents, captured | Squares.bit(ray[victim]), moves, first, count);
+				if (!king) {
+					break;
+				}
+			}
+		}
+
+		if (!extended && captured != 0) {
+			count = add(moves, first, count, BitMove.of(from, square, captured));
+		}
+		return count;
+	}
+
+	private static boolean findPath(int square, boolean king, int empty, int remaining, int to, int depth, int[] path) {
+		if (remaining == 0) {
+			return square == to;
+		}
+
+		for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+			int[] ray = Squares.ray(square, direction);
+			int victim = victimIndex(ray, king, empty);
+			if (victim == Squares.NONE || (remaining & Squares.bit(ray[victim])) == 0) {
+				continue;
+			}
+			for (int i = victim + 1; i < ray.length && (empty & Squares.bit(ray[i])) != 0; i++) {
+				path[depth] = ray[i];
+				if (findPath(ray[i], king, empty, remaining & ~Squares.bit(ray[victim]), to, depth + 1, path)) {
+					return true;
+				}
+				if (!king) {
+					break;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return index in the ray of the first square which is not empty, kings look along whole diagonal;
+	 * {@link Squares#NONE} if there is no such square or no square behind it
+	 */
+	private static int victimIndex(int[] ray, boolean king, int empty) {
+		int i = 0;
+		while (king && i < ray.length && (empty & Squares.bit(ray[i])) != 0) {
+			i++;
+		}
+		return i + 1 < ray.length && (empty & Squares.bit(ray[i])) == 0 ? i : Squares.NONE;
+	}
+
+	/**
+	 * Adds move unless it is already there, e.g. king beating the same pawns in a different order.
+	 * Moves above {@link #MAX_MOVES} are dropped.
+	 */
+	private static int add(long[] moves, int first, int count, long move) {
+		for (int i = first; i < count; i++) {
+			if (moves[i] == move) {
+				return count;
+			}
+		}
+		if (count < moves.length) {
+			moves[count++] = move;
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,130 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+/**
+ * Orders moves generated for a node, so the best move is likely searched first and alpha-beta cuts off early.
+ * Order: the best move from {@link TranspositionTable}, beatings by value of beaten pawns, killer moves of the ply
+ * (moves without beating which caused cutoff in siblings) and moves by history of cutoffs they caused.
+ * Counts cutoffs and cutoffs made by the first move, which shows quality of the order.
+ */
+public class MoveOrdering {
+
+	public static final int MAX_PLY = 128;
+
+	private static final int HASH_MOVE_SCORE = 1 << 30;
+	private static final int BEATING_SCORE = 1 << 28;
+	private static final int KILLER_SCORE = 1 << 26;
+	private static final int MAX_HISTORY = KILLER_SCORE - 1;
+	private static final int MAN_VALUE = 1;
+	private static final int KING_VALUE = 3;
+
+	private final long[][] killers = new long[MAX_PLY][2];
+	private final int[] history = new int[2 * Squares.COUNT * Squares.COUNT];
+	private final int[][] scores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+	private long cutoffs;
+	private long firstMoveCutoffs;
+
+	/**
+	 * Forgets killers and halves history, so it follows the current position. Called before each search.
+	 */
+	public void newSearch() {
+		for (long[] killer : killers) {
+			killer[0] = BitMove.NONE;
+			killer[1] = BitMove.NONE;
+		}
+		for (int i = 0; i < history.length; i++) {
+			history[i] >>= 1;
+		}
+	}
+
+	/**
+	 * Sorts moves from the most promising one.
+	 * @param entry entry of the node in {@link TranspositionTable} or 0
+	 */
+	public void order(BitBoard board, long[] moves, int count, long entry, int ply) {
+		int[] score = scores[Math.min(ply, MAX_PLY - 1)];
+		long[] killer = killers[Math.min(ply, MAX_PLY - 1)];
+		PawnType pawnType = board.getTurn();
+
+		for (int i = 0; i < count; i++) {
+			long move = moves[i];
+			if (entry != 0L && TranspositionTable.isBestMove(entry, move)) {
+				score[i] = HASH_MOVE_SCORE;
+			} else if (BitMove.hasBeating(move)) {
+				int captured = BitMove.captured(move);
+				int kings = Integer.bitCount(captured & board.kings());
+				score[i] = BEATING_SCORE + kings * KING_VALUE + (Integer.bitCount(captured) - kings) * MAN_VALUE;
+			} else if (move == killer[0]) {
+				score[i] = KILLER_SCORE + 1;
+			} else if (move == killer[1]) {
+				score[i] = KILLER_SCORE;
+			} else {
+				score[i] = history[historyIndex(pawnType, move)];
+			}
+		}
+
+		for (int i = 1; i < count; i++) { //insertion sort, lists are short
+			long move = moves[i];
+			int value = score[i];
+			int j = i - 1;
+			for (; j >= 0 && score[j] < value; j--) {
+				moves[j + 1] = moves[j];
+				score[j + 1] = score[j];
+			}
+			moves[j + 1] = move;
+			score[j + 1] = value;
+		}
+	}
+
+	/**
+	 * Remembers move which caused beta cutoff.
+	 * @param index position of the move in the ordered moves
+	 */
+	public void cutoff(PawnType pawnType, long move, int ply, int depth, int index) {
+		cutoffs++;
+		if (index == 0) {
+			firstMoveCutoffs++;
+		}
+		if (BitMove.hasBeating(move)) {
+			return;
+		}
+
+		long[] killer = killers[Math.min(ply, MAX_PLY - 1)];
+		if (killer[0] != move) {
+			killer[1] = killer[0];
+			killer[0] = move;
+		}
+		int i = historyIndex(pawnType, move);
+		history[i] = Math.min(MAX_HISTORY, history[i] + depth * depth);
+	}
+
+	public long getCutoffs() {
+		return cutoffs;
+	}
+
+	public long getFirstMoveCutoffs() {
+		return firstMoveCutoffs;
+	}
+
+	/**
+	 * @return part of cutoffs made by the first searched move, 1.0 means perfect order
+	 */
+	public double getFirstMoveCutoffRate() {
+		return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+	}
+
+	public void resetCounters() {
+		cutoffs = 0;
+		firstMoveCutoffs = 0;
+	}
+
+	private static int historyIndex(PawnType pawnType, long move) {
+		return (pawnType.ordinal() * Squares.COUNT + BitMove.from(move)) * Squares.COUNT + BitMove.to(move);
+	}
+
+}
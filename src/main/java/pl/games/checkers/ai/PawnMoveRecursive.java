@@ -4,15 +4,14 @@ import pl.games.checkers.*;
 import pl.games.checkers.model.*;
 
 import java.util.*;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
-import java.util.concurrent.RecursiveTask;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
-public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
-
-    private static final ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+/**
+ * Moves of one pawn in all directions. Moves are computed sequentially by the calling thread,
+ * parallelism belongs to the root of the search, see {@link EngineExecutor}.
+ */
+public class PawnMoveRecursive {
 
     private static final int BEAT = 3;
     private static final int WALK = 1;
@@ -29,7 +28,7 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
      */
     public static List<MoveRate> getNextMoves(Board board, Pawn pawn) {
         if (pawn != null) {
-            return forkJoinPool.invoke(new PawnMoveRecursive(PawnBoard.create(board), pawn));
+            return new PawnMoveRecursive(BitBoard.create(board), pawn).compute();
         }
         return List.of();
     }
@@ -52,10 +51,10 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
         this.fork = fork;
     }
 
-    @Override protected List<MoveRate> compute() {
+    private List<MoveRate> compute() {
         if (fork) {
-            return ForkJoinTask.invokeAll(createMovesOf(pawnBoard, pawn)).stream()
-                    .map(ForkJoinTask::join)
+            return createMovesOf(pawnBoard, pawn).stream()
+                    .map(PawnMoveRecursive::compute)
                     .flatMap(e -> e.stream())
                     .filter(e -> e.rate() >= 0)
                     .collect(Collectors.toList());
@@ -67,10 +66,10 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
     private List<PawnMoveRecursive> createMovesOf(Board board, Pawn pawn) {
         List<PawnMoveRecursive> pawnMoveRecursives = new ArrayList<>();
 
-        pawnMoveRecursives.addAll(changePosition(PawnBoard.create(board), Position::towardLeft, pawn));
-        pawnMoveRecursives.addAll(changePosition(PawnBoard.create(board), Position::towardRight, pawn));
-        pawnMoveRecursives.addAll(changePosition(PawnBoard.create(board), Position::backwardLeft, pawn));
-        pawnMoveRecursives.addAll(changePosition(PawnBoard.create(board), Position::backwardRight, pawn));
+        pawnMoveRecursives.addAll(changePosition(BitBoard.create(board), Position::towardLeft, pawn));
+        pawnMoveRecursives.addAll(changePosition(BitBoard.create(board), Position::towardRight, pawn));
+        pawnMoveRecursives.addAll(changePosition(BitBoard.create(board), Position::backwardLeft, pawn));
+        pawnMoveRecursives.addAll(changePosition(BitBoard.create(board), Position::backwardRight, pawn));
 
         return pawnMoveRecursives;
     }
@@ -95,9 +94,9 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
 
     private List<PawnMoveRecursive> changePosition(Board pawnBoard, BiFunction<Position, Integer, Position> operation, Pawn pawn) {
         if (pawn.isKing()) {
-            return changePositionOfKingPawn(PawnBoard.create(pawnBoard), pawn.copy(), operation);
+            return changePositionOfKingPawn(BitBoard.create(pawnBoard), pawn.copy(), operation);
         }
-        return changePositionOfMerePawn(PawnBoard.create(pawnBoard), pawn.copy(), operation);
+        return changePositionOfMerePawn(BitBoard.create(pawnBoard), pawn.copy(), operation);
     }
 
     private List<PawnMoveRecursive> changePositionOfMerePawn(Board pawnBoard, Pawn p, BiFunction<Position, Integer, Position> operation) {
@@ -126,7 +125,7 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
 
             p.nextPosition(operation.apply(p.nextPosition(), direction));
             if (pawnBoard.getPawn(p.nextPosition()) == null && Rules.isOnBoard().test(p.nextPosition())) {
-                pawnMoveRecursiveList.add(new PawnMoveRecursive(PawnBoard.create(pawnBoard), p.copy(), false));
+                pawnMoveRecursiveList.add(new PawnMoveRecursive(BitBoard.create(pawnBoard), p.copy(), false));
             }
         }
 
@@ -144,7 +143,7 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
         ) {
             if (pawnBoard.getPawn(p.nextPosition()) == null) {
                 p.setMove(new Move(MoveType.MOVE));
-                pawnMoveRecursiveList.add(new PawnMoveRecursive(PawnBoard.create(pawnBoard), p.copy(), false));
+                pawnMoveRecursiveList.add(new PawnMoveRecursive(BitBoard.create(pawnBoard), p.copy(), false));
             } else if (Rules.isOpponent(pawnBoard.getPawn(p.nextPosition())).test(p)) {
                 Pawn victim = pawnBoard.getPawn(p.nextPosition());
                 p.setMove(new Move(MoveType.KILL, victim));
@@ -152,7 +151,7 @@ public class PawnMoveRecursive extends RecursiveTask<List<MoveRate>> {
                      pawnBoard.getPawn(p.nextPosition()) == null && Rules.isOnBoard().test(p.nextPosition());
                      p.nextPosition(operation.apply(p.nextPosition(), direction))
                 ) {
-                    pawnMoveRecursiveList.add(new PawnMoveRecursive(PawnBoard.create(pawnBoard), p.copy(), false));
+                    pawnMoveRecursiveList.add(new PawnMoveRecursive(BitBoard.create(pawnBoard), p.copy(), false));
                 }
                 break;
             }
@@ -0,0 +1,128 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.PawnBoard;
+import pl.games.checkers.model.PawnType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Counts leaf nodes of the tree of legal moves to a fixed depth, to check that move generation and
+ * makeMove/unmakeMove of a {@link Board} are correct: any change of them has to keep counts of {@link #INITIAL}.
+ * Moves are generated by {@link MoveGenerator}, which validates moves of {@link Board#execute}, and are made
+ * on the board given, so {@link PawnBoard} is checked as well as {@link BitBoard}.
+ * Root moves are counted in parallel by {@link EngineExecutor}.
+ * <p>
+ * Run by gradle task perft, arguments: depth (default 8), board "bit" or "pawn" (default "bit")
+ * and "divide" to print count of each root move.
+ */
+public final class Perft {
+
+	/**
+	 * Counts of the initial position by depth. They differ from English draughts from depth 5,
+	 * as mere pawns beat backward and kings move along whole diagonals here.
+	 */
+	public static final long[] INITIAL = { 1, 7, 49, 302, 1469, 7482, 37986, 190146, 929896, 4570536, 22438407 };
+
+	private final EngineExecutor executor;
+
+	public Perft(EngineExecutor executor) {
+		this.executor = executor;
+	}
+
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		boolean pawnBoard = args.length > 1 && "pawn".equals(args[1]);
+		boolean divide = args.length > 2 && "divide".equals(args[2]);
+		BitBoard initial = BitBoard.initial(PawnType.WHITE);
+		Board<?> board = pawnBoard ? PawnBoard.create(initial) : initial;
+		Perft perft = new Perft(EngineExecutor.getInstance());
+
+		System.out.printf("Perft %d of %s, %d threads%n", depth, board.getClass().getSimpleName(),
+				EngineExecutor.getInstance().getThreads());
+		long start = System.nanoTime();
+		long nodes;
+		if (divide) {
+			Map<Long, Long> counts = perft.divide(board, depth);
+			counts.forEach((move, count) -> System.out.printf("%8s %14d%n", BitMove.notation(move), count));
+			nodes = counts.values().stream().mapToLong(Long::longValue).sum();
+		} else {
+			nodes = perft.count(board, depth);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("nodes %d, %.3f s, %.0f knps%n", nodes, seconds, nodes / seconds / 1000);
+		if (depth < INITIAL.length && nodes != INITIAL[depth]) {
+			System.out.printf("expected %d%n", INITIAL[depth]);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @return number of positions after depth plies from the board with its pawn type to move
+	 */
+	public long count(Board<?> board, int depth) {
+		return divide(board, depth).values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * @return number of positions after depth plies by root move, in order of {@link MoveGenerator}
+	 */
+	public Map<Long, Long> divide(Board<?> board, int depth) {
+		Map<Long, Long> counts = new LinkedHashMap<>();
+		if (depth == 0) {
+			counts.put(BitMove.NONE, 1L);
+			return counts;
+		}
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(BitBoard.create(board), board.getTurn(), moves);
+		List<Callable<Long>> tasks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			long move = moves[i];
+			Board<?> copy = copy(board);
+			tasks.add(() -> {
+				copy.makeMove(move);
+				return count(copy, depth - 1, new long[depth][MoveGenerator.MAX_MOVES]);
+			});
+		}
+		List<Long> results = executor.invokeAll(tasks);
+		for (int i = 0; i < count; i++) {
+			counts.put(moves[i], results.get(i));
+		}
+		return counts;
+	}
+
+	/**
+	 * Leaves are not made, moves of the last ply are only counted.
+	 * @param moves buffer of moves for each remaining ply
+	 */
+	private static long count(Board<?> board, int depth, long[][] moves) {
+		if (depth == 0) {
+			return 1;
+		}
+		long[] buffer = moves[depth - 1];
+		BitBoard bitBoard = board instanceof BitBoard ? (BitBoard) board : BitBoard.create(board);
+		int count = MoveGenerator.generate(bitBoard, board.getTurn(), buffer);
+		if (depth == 1) {
+			return count;
+		}
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			board.makeMove(buffer[i]);
+			nodes += count(board, depth - 1, moves);
+			board.unmakeMove(buffer[i]);
+		}
+		return nodes;
+	}
+
+	private static Board<?> copy(Board<?> board) {
+		return board instanceof BitBoard ? ((BitBoard) board).copy() : PawnBoard.create(board);
+	}
+
+}
@@ -0,0 +1,130 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.ai.algorithm.SearchStatistics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener of {@link Engine} which keeps {@link SearchStatistics} of the latest search and totals of all searches,
+ * so they can be read by JMX, e.g. by a monitoring agent. The instance is registered as MBean {@value #NAME}
+ * of the platform MBean server and listens to every engine.
+ */
+public final class SearchMonitor implements SearchMonitorMBean, Consumer<SearchStatistics> {
+
+	public static final String NAME = "pl.games.checkers:type=SearchMonitor";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchMonitor.class);
+	private static final SearchMonitor INSTANCE = register(new SearchMonitor());
+
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder totalNodes = new LongAdder();
+	private volatile SearchStatistics latest = new SearchStatistics();
+
+	public static SearchMonitor getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public void accept(SearchStatistics statistics) {
+		searches.increment();
+		totalNodes.add(statistics.getNodes());
+		latest = statistics;
+	}
+
+	public SearchStatistics getLatest() {
+		return latest;
+	}
+
+	@Override
+	public long getSearches() {
+		return searches.sum();
+	}
+
+	@Override
+	public long getTotalNodes() {
+		return totalNodes.sum();
+	}
+
+	@Override
+	public long getNodes() {
+		return latest.getNodes();
+	}
+
+	@Override
+	public long getNodesPerSecond() {
+		return latest.getNodesPerSecond();
+	}
+
+	@Override
+	public long getBetaCutoffs() {
+		return latest.getBetaCutoffs();
+	}
+
+	@Override
+	public double getFirstMoveCutoffRate() {
+		return latest.getFirstMoveCutoffRate();
+	}
+
+	@Override
+	public long getEvaluations() {
+		return latest.getEvaluations();
+	}
+
+	@Override
+	public double getTableHitRate() {
+		return latest.getTableHitRate();
+	}
+
+	/**
+	 * @return hit rate of {@link EvaluationCache}, which is shared by all searches, since the last reset
+	 */
+	@Override
+	public double getEvaluationCacheHitRate() {
+		return EvaluationCache.getInstance().getHitRate();
+	}
+
+	@Override
+	public int getDepth() {
+		return latest.getDepth();
+	}
+
+	@Override
+	public int getMaxPly() {
+		return latest.getMaxPly();
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return latest.getElapsed().toMillis();
+	}
+
+	@Override
+	public long[] getIterationMillis() {
+		return latest.getIterations().stream().mapToLong(time -> time.toMillis()).toArray();
+	}
+
+	@Override
+	public void resetCounters() {
+		searches.reset();
+		totalNodes.reset();
+		EvaluationCache.getInstance().resetCounters();
+	}
+
+	private static SearchMonitor register(SearchMonitor monitor) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, new ObjectName(NAME));
+		} catch (JMException e) {
+			LOGGER.warn("Search monitor is not registered as MBean", e);
+		}
+		return monitor;
+	}
+
+}
@@ -0,0 +1,36 @@
+package pl.games.checkers.ai;
+
+/**
+ * JMX view of {@link SearchMonitor}: totals of all searches and statistics of the latest one.
+ */
+public interface SearchMonitorMBean {
+
+	long getSearches();
+
+	long getTotalNodes();
+
+	long getNodes();
+
+	long getNodesPerSecond();
+
+	long getBetaCutoffs();
+
+	double getFirstMoveCutoffRate();
+
+	long getEvaluations();
+
+	double getTableHitRate();
+
+	double getEvaluationCacheHitRate();
+
+	int getDepth();
+
+	int getMaxPly();
+
+	long getElapsedMillis();
+
+	long[] getIterationMillis();
+
+	void resetCounters();
+
+}
@@ -0,0 +1,149 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitMove;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, kept in a primitive array to avoid objects per entry.
+ * Each entry takes two longs: position hash xor data and data, so entry torn by concurrent writes is not matched.
+ * Data keeps score (bits 0-31), depth (32-39), bound (40-41), the best move as squares from and to (42-51)
+ * and age (52-57): number of the search which stored it, so entries of positions left behind by the game are replaced.
+ * Data of an entry is never 0, so 0 returned by {@link #probe(long)} means that position is not in the table.
+ */
+public class TranspositionTable {
+
+	public enum Replacement {
+		/** entry is replaced only by a result of the same or deeper search */
+		DEPTH_PREFERRED,
+		/** entry is always replaced by the latest result */
+		ALWAYS_REPLACE
+	}
+
+	public static final int EXACT = 1;
+	public static final int LOWER = 2; //score is at least the stored one
+	public static final int UPPER = 3; //score is at most the stored one
+
+	private static final int ENTRY_BYTES = 2 * Long.BYTES;
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int FROM_SHIFT = 42;
+	private static final int TO_SHIFT = 47;
+	private static final int AGE_SHIFT = 52;
+	private static final long SQUARE_MASK = 0x1f;
+	private static final long MOVE_MASK = 0x3ffL << FROM_SHIFT;
+	private static final int AGE_MASK = 0x3f;
+	private static final long WIN_THRESHOLD = 900_000; //scores above are won games
+
+	private final long[] entries;
+	private final int mask;
+	private final Replacement replacement;
+	private volatile int age; //written by the thread which starts a search, read by all threads which search
+
+	public TranspositionTable(int megabytes, Replacement replacement) {
+		long capacity = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / ENTRY_BYTES));
+		capacity = Math.min(capacity, 1 << 29);
+		this.entries = new long[(int) capacity * 2];
+		this.mask = (int) capacity - 1;
+		this.replacement = replacement;
+	}
+
+	/**
+	 * @return data of the entry or 0 if position is not in the table
+	 */
+	public long probe(long hash) {
+		int index = index(hash);
+		long data = entries[index + 1];
+		return (entries[index] ^ data) == hash ? data : 0L;
+	}
+
+	/**
+	 * Entries stored by previous searches are kept and found, but are replaced regardless of their depth.
+	 * Called once per move, not per iteration of the search, before threads which share the table start searching.
+	 */
+	public void newSearch() {
+		age = (age + 1) & AGE_MASK;
+	}
+
+	/**
+	 * @param score score which does not depend on ply, see {@link #toTable(long, int)}
+	 * @param bestMove the best move or {@link BitMove#NONE}
+	 */
+	public void store(long hash, int depth, int bound, long score, long bestMove) {
+		int index = index(hash);
+		long current = entries[index + 1];
+		if (replacement == Replacement.DEPTH_PREFERRED && current != 0L
+				&& (entries[index] ^ current) != hash && depth(current) > depth && age(current) == age) {
+			return;
+		}
+
+		long data = (score & 0xffffffffL)
+				| ((long) Math.min(depth, 0xff) << DEPTH_SHIFT)
+				| ((long) bound << BOUND_SHIFT)
+				| ((long) age << AGE_SHIFT);
+		if (bestMove != BitMove.NONE) {
+			data |= ((long) BitMove.from(bestMove) << FROM_SHIFT) | ((long) BitMove.to(bestMove) << TO_SHIFT);
+		}
+		entries[index] = hash ^ data;
+		entries[index + 1] = data;
+	}
+
+	public void clear() {
+		Arrays.fill(entries, 0L);
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	public static long score(long data) {
+		return (int) data;
+	}
+
+	public static int depth(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & 0xff;
+	}
+
+	public static int bound(long data) {
+		return (int) (data >>> BOUND_SHIFT) & 0x3;
+	}
+
+	public static int age(long data) {
+		return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+	}
+
+	/**
+	 * @return true if the stored best move goes between the same squares as the move
+	 */
+	public static boolean isBestMove(long data, long move) {
+		return ((data >>> FROM_SHIFT) & SQUARE_MASK) == BitMove.from(move)
+				&& ((data >>> TO_SHIFT) & SQUARE_MASK) == BitMove.to(move)
+				&& (data & MOVE_MASK) != 0;
+	}
+
+	/**
+	 * Scores of won and lost games depend on the distance from the root, so they are stored as distance from the node.
+	 */
+	public static long toTable(long score, int ply) {
+		if (score > WIN_THRESHOLD) {
+			return score + ply;
+		} else if (score < -WIN_THRESHOLD) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	public static long fromTable(long score, int ply) {
+		if (score > WIN_THRESHOLD) {
+			return score - ply;
+		} else if (score < -WIN_THRESHOLD) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	private int index(long hash) {
+		return ((int) (hash ^ (hash >>> 32)) & mask) * 2;
+	}
+
+}
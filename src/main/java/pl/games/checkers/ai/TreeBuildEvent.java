@@ -0,0 +1,24 @@
+package pl.games.checkers.ai;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of {@link GameTree#buildTree()}.
+ */
+@Name("pl.games.checkers.TreeBuild")
+@Label("Game Tree Build")
+@Category({ "Checkers", "Engine" })
+@Enabled(false)
+final class TreeBuildEvent extends Event {
+
+	@Label("Depth")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+}
@@ -0,0 +1,308 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.ai.Evaluation;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.MoveOrdering;
+import pl.games.checkers.ai.TranspositionTable;
+import pl.games.checkers.ai.endgame.Tablebase;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Minimax with alpha-beta pruning which walks one {@link BitBoard} in place with make/unmake of moves,
+ * instead of analyzing a game tree built before. Given game tree is used only as a root: board, pawn type and depth.
+ * Scores are kept from point of view of the pawn type to move (negamax).
+ * Results are kept in {@link TranspositionTable}, which lives as long as this object, so it serves following moves too.
+ * Moves of each node are sorted by {@link MoveOrdering}.
+ * When depth is reached, search goes on with beatings only (quiescence), so only positions without beating are rated.
+ * Positions with as few pawns as endgames of {@link Tablebase} are not searched, their result is probed.
+ * Cutoffs, evaluations and table lookups of each search are counted by {@link SearchStatistics}.
+ */
+public class AlphaBeta implements NextMove {
+
+	public static final long WIN = 1_000_000;
+	public static final int MAX_DEPTH = 64;
+	public static final int DEFAULT_TABLE_SIZE = 16; //MB
+	private static final long DECIDED = WIN - 1_000; //scores above mean won game
+	private static final long INFINITY = Long.MAX_VALUE;
+	private static final int CHECK_INTERVAL = 0xff; //limits are checked every 256 nodes
+
+	private final int tableSize;
+	private final TranspositionTable.Replacement replacement;
+	private TranspositionTable table; //allocated on first search
+	private final MoveOrdering ordering = new MoveOrdering();
+	private long[][] moves; //generated moves per ply, reused by all nodes at the same ply
+	private long deadline = Long.MAX_VALUE; //value of System.nanoTime() when search is stopped
+	private long maxNodes = Long.MAX_VALUE;
+	private BooleanSupplier cancelled = () -> false;
+	private Tablebase tablebase = Tablebase.getInstance();
+	private boolean stopped;
+	private long rootMove;
+	private long score;
+	private long nodes;
+	private SearchStatistics statistics = new SearchStatistics();
+
+	public AlphaBeta() {
+		this(DEFAULT_TABLE_SIZE, TranspositionTable.Replacement.DEPTH_PREFERRED);
+	}
+
+	/**
+	 * @param tableSize size of transposition table in MB
+	 */
+	public AlphaBeta(int tableSize, TranspositionTable.Replacement replacement) {
+		this.tableSize = tableSize;
+		this.replacement = replacement;
+	}
+
+	/**
+	 * @param table transposition table shared with other searches, possibly running in other threads
+	 */
+	public AlphaBeta(TranspositionTable table) {
+		this(0, null);
+		this.table = table;
+	}
+
+	@Override
+	public Pawn nextMove(final GameTree gameTree) {
+		BitBoard board = BitBoard.create(gameTree.getBoard());
+		return MoveGenerator.toPawn(board, search(board, Math.max(1, gameTree.getDepth())));
+	}
+
+	/**
+	 * Sets limits of the following searches. Search which exceeds them is stopped and its result is discarded.
+	 * @param deadline value of {@link System#nanoTime()} when search is stopped
+	 */
+	public AlphaBeta limit(long deadline, long maxNodes) {
+		this.deadline = deadline;
+		this.maxNodes = maxNodes;
+		return this;
+	}
+
+	/**
+	 * Sets condition of cooperative cancellation, checked together with the time limit.
+	 * Search which is cancelled is stopped and its result is discarded.
+	 */
+	public AlphaBeta cancellation(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		return this;
+	}
+
+	/**
+	 * Sets endgame databases probed by the following searches, by default {@link Tablebase#getInstance()}.
+	 */
+	public AlphaBeta tablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+		return this;
+	}
+
+	/**
+	 * Searches for the best move of pawn type to move on the board, board is restored when search ends.
+	 * @return the best move or {@link BitMove#NONE} if there is no move or search was stopped by limits
+	 */
+	public long search(BitBoard board, int depth) {
+		if (table == null) {
+			table = new TranspositionTable(tableSize, replacement);
+		}
+		if (moves == null) {
+			moves = new long[MoveOrdering.MAX_PLY][];
+		}
+		rootMove = BitMove.NONE;
+		stopped = false;
+		nodes = 0;
+		statistics = new SearchStatistics();
+		ordering.newSearch();
+
+		score = search(board, board.getTurn(), Math.min(depth, MAX_DEPTH), 0, -INFINITY, INFINITY);
+		statistics.nodes = nodes;
+
+		return stopped ? BitMove.NONE : rootMove;
+	}
+
+	/**
+	 * @return true if the latest search was stopped by limits
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * @return score of the latest search from point of view of pawn type to move
+	 */
+	public long getScore() {
+		return score;
+	}
+
+	/**
+	 * @return number of nodes visited by the latest search
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return counters of the latest search, including a stopped one
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	public TranspositionTable getTable() {
+		return table;
+	}
+
+	public MoveOrdering getOrdering() {
+		return ordering;
+	}
+
+	/**
+	 * @return true if score means that game is won or lost
+	 */
+	public static boolean isDecided(long score) {
+		return Math.abs(score) > DECIDED;
+	}
+
+	private long search(BitBoard board, PawnType pawnType, int depth, int ply, long alpha, long beta) {
+		nodes++;
+		if (((nodes & CHECK_INTERVAL) == 0 && (System.nanoTime() > deadline || cancelled.getAsBoolean()))
+				|| nodes > maxNodes) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0;
+		}
+		if (ply > 0 && Integer.bitCount(board.occupied()) <= tablebase.getPieces()) {
+			int result = tablebase.probe(board, pawnType);
+			if (result != Tablebase.UNKNOWN) {
+				return score(result, ply);
+			}
+		}
+		if (depth <= 0) {
+			return quiesce(board, pawnType, ply, alpha, beta);
+		}
+		if (ply > statistics.maxPly) {
+			statistics.maxPly = ply;
+		}
+
+		long entry = table.probe(board.hash());
+		statistics.tableProbes++;
+		if (entry != 0L) {
+			statistics.tableHits++;
+		}
+		if (entry != 0L && TranspositionTable.depth(entry) >= depth && ply > 0) {
+			long score = TranspositionTable.fromTable(TranspositionTable.score(entry), ply);
+			int bound = TranspositionTable.bound(entry);
+			if (bound == TranspositionTable.EXACT
+					|| (bound == TranspositionTable.LOWER && score >= beta)
+					|| (bound == TranspositionTable.UPPER && score <= alpha)) {
+				return score;
+			}
+		}
+
+		long[] plyMoves = moves(ply);
+		int count = MoveGenerator.generate(board, pawnType, plyMoves);
+		if (count == 0) { //no move means lost game, the sooner the worse
+			return -WIN + ply;
+		}
+		ordering.order(board, plyMoves, count, entry, ply);
+
+		long alphaOrig = alpha;
+		long bestScore = -INFINITY;
+		long bestMove = BitMove.NONE;
+		for (int i = 0; i < count; i++) {
+			long move = plyMoves[i];
+			board.makeMove(move);
+			long score = -search(board, pawnType.negate(), depth - 1, ply + 1, -beta, -alpha);
+			board.unmakeMove(move);
+			if (stopped) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+				if (ply == 0) {
+					rootMove = move;
+				}
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) { //stop analyzing this subtree
+						ordering.cutoff(pawnType, move, ply, depth, i);
+						statistics.betaCutoffs++;
+						statistics.firstMoveCutoffs += i == 0 ? 1 : 0;
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = bestScore <= alphaOrig ? TranspositionTable.UPPER
+				: bestScore >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+		table.store(board.hash(), depth, bound, TranspositionTable.toTable(bestScore, ply), bestMove);
+		return bestScore;
+	}
+
+	/**
+	 * Searches beatings until there is none. Beating is obligatory, so position with beating is never rated
+	 * and there is no stand pat: the side to move cannot decline it.
+	 */
+	private long quiesce(BitBoard board, PawnType pawnType, int ply, long alpha, long beta) {
+		if (ply > statistics.maxPly) {
+			statistics.maxPly = ply;
+		}
+		if (ply >= MoveOrdering.MAX_PLY - 1) {
+			return evaluate(board, pawnType);
+		}
+		long[] plyMoves = moves(ply);
+		int count = MoveGenerator.generateBeatings(board, pawnType, plyMoves);
+		if (count == 0) { //quiet position, unless there is no move at all
+			return MoveGenerator.generateWalks(board, pawnType, plyMoves) == 0 ? -WIN + ply : evaluate(board, pawnType);
+		}
+		ordering.order(board, plyMoves, count, 0L, ply);
+
+		long bestScore = -INFINITY;
+		for (int i = 0; i < count; i++) {
+			long move = plyMoves[i];
+			board.makeMove(move);
+			nodes++;
+			long score = -quiesce(board, pawnType.negate(), ply + 1, -beta, -Math.max(alpha, bestScore));
+			board.unmakeMove(move);
+
+			if (score > bestScore) {
+				bestScore = score;
+				if (bestScore >= beta) {
+					break;
+				}
+			}
+		}
+		return bestScore;
+	}
+
+	private long[] moves(int ply) {
+		if (moves[ply] == null) {
+			moves[ply] = new long[MoveGenerator.MAX_MOVES];
+		}
+		return moves[ply];
+	}
+
+	/**
+	 * @return score of the result of {@link Tablebase}, won or lost game is scored like the end of the game after distance
+	 */
+	private static long score(int result, int ply) {
+		if (Tablebase.isWin(result)) {
+			return WIN - ply - Tablebase.distance(result);
+		}
+		return Tablebase.isLoss(result) ? -WIN + ply + Tablebase.distance(result) : 0;
+	}
+
+	private long evaluate(BitBoard board, PawnType pawnType) {
+		statistics.evaluations++;
+		long rate = Evaluation.rate(board, false);
+		return pawnType == PawnType.BLACK ? rate : -rate;
+	}
+
+}
@@ -0,0 +1,36 @@
+package pl.games.checkers.ai.algorithm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one iteration of {@link IterativeDeepening}, an {@link AlphaBeta} search to a fixed depth.
+ */
+@Name("pl.games.checkers.Iteration")
+@Label("Search Iteration")
+@Description("Alpha-beta search to a fixed depth, stopped ones included")
+@Category({ "Checkers", "Engine" })
+@Enabled(false)
+final class IterationEvent extends Event {
+
+	@Label("Depth")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Max Ply")
+	int maxPly;
+
+	@Label("Score")
+	long score;
+
+	@Label("Stopped")
+	@Description("Iteration was stopped by limits or cancellation, its result is discarded")
+	boolean stopped;
+
+}
@@ -0,0 +1,228 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.TranspositionTable;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Pawn;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Searches with {@link AlphaBeta} to depth 1, 2, 3... until time or node budget is spent
+ * and returns the best move of the deepest completed iteration, so time of a reply does not depend on the position.
+ * Transposition table filled by earlier iterations orders moves of the later ones.
+ * It is kept between moves, so the search of a position analyzed before, e.g. the one after the expected reply,
+ * goes on from the depth of the exact result kept in the table instead of starting again from depth 1.
+ * Depth of given game tree limits depth of the search.
+ * Pondering search has no limits until {@link #ponderHit()} starts the time budget.
+ * Counters of all iterations and their times are summed by {@link SearchStatistics}.
+ * Search and its iterations are recorded by flight recorder as {@link SearchEvent} and {@link IterationEvent}.
+ */
+public class IterativeDeepening implements NextMove {
+
+	private final AlphaBeta alphaBeta;
+	private final Duration timeBudget;
+	private final long nodeBudget;
+	private int depth; //depth of the latest completed iteration
+	private long nodes; //nodes of all iterations of the latest search
+	private SearchStatistics statistics = new SearchStatistics();
+	private volatile Consumer<SearchProgress> progress = p -> {};
+	private BooleanSupplier cancelled = () -> false;
+	private volatile boolean pondering;
+	private volatile long start; //value of System.nanoTime() when time budget started
+	private volatile long deadline = Long.MAX_VALUE; //value of System.nanoTime() when search is stopped
+
+	public IterativeDeepening(Duration timeBudget) {
+		this(new AlphaBeta(), timeBudget, Long.MAX_VALUE);
+	}
+
+	public IterativeDeepening(AlphaBeta alphaBeta, Duration timeBudget, long nodeBudget) {
+		this.alphaBeta = alphaBeta;
+		this.timeBudget = timeBudget;
+		this.nodeBudget = nodeBudget;
+		alphaBeta.cancellation(() -> cancelled.getAsBoolean() || (depth > 0 && System.nanoTime() > deadline)); //depth 1 is always completed
+	}
+
+	/**
+	 * @see AlphaBeta#cancellation(BooleanSupplier)
+	 */
+	public IterativeDeepening cancellation(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		return this;
+	}
+
+	/**
+	 * @param progress called by the searching thread after each completed iteration
+	 */
+	public IterativeDeepening progress(Consumer<SearchProgress> progress) {
+		this.progress = progress;
+		return this;
+	}
+
+	@Override
+	public Pawn nextMove(final GameTree gameTree) {
+		BitBoard board = BitBoard.create(gameTree.getBoard());
+		return MoveGenerator.toPawn(board, search(board, Math.max(1, gameTree.getDepth())));
+	}
+
+	/**
+	 * Depth 1 is always completed, so a move is returned whenever pawn type to move has any.
+	 * After {@link #ponder()} the search has no time and node limit until {@link #ponderHit()}.
+	 * @return the best move of the deepest completed iteration
+	 */
+	public long search(BitBoard board, int maxDepth) {
+		if (alphaBeta.getTable() != null) {
+			alphaBeta.getTable().newSearch();
+		}
+		return search(board, maxDepth, () -> {});
+	}
+
+	/**
+	 * Search without a new age of the table, the caller starts it, e.g. {@link LazySmp} before its helpers.
+	 * @param started called when the result kept in the table is reused, before the first iteration
+	 */
+	long search(BitBoard board, int maxDepth, Runnable started) {
+		if (!pondering) {
+			start = System.nanoTime();
+			deadline = start + timeBudget.toNanos();
+		}
+		SearchEvent event = new SearchEvent();
+		event.begin();
+		boolean pondered = pondering;
+		long searchStart = System.nanoTime();
+		long bestMove = BitMove.NONE;
+		nodes = 0;
+		depth = 0;
+		statistics = new SearchStatistics();
+
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		if (count == 1 && !pondering) { //nothing to think about
+			return moves[0];
+		}
+		if (alphaBeta.getTable() != null) {
+			bestMove = reuse(board, moves, count);
+		}
+		started.run();
+
+		for (int iteration = depth + 1; iteration <= Math.min(maxDepth, AlphaBeta.MAX_DEPTH); iteration++) {
+			alphaBeta.limit(Long.MAX_VALUE, depth == 0 || pondering ? Long.MAX_VALUE : nodeBudget - nodes);
+			IterationEvent iterationEvent = new IterationEvent();
+			iterationEvent.begin();
+			long iterationStart = System.nanoTime();
+			long move = alphaBeta.search(board, iteration);
+			nodes += alphaBeta.getNodes();
+			statistics.add(alphaBeta.getStatistics());
+			if (iterationEvent.shouldCommit()) {
+				iterationEvent.depth = iteration;
+				iterationEvent.nodes = alphaBeta.getNodes();
+				iterationEvent.maxPly = alphaBeta.getStatistics().getMaxPly();
+				iterationEvent.score = alphaBeta.getScore();
+				iterationEvent.stopped = alphaBeta.isStopped();
+				iterationEvent.commit();
+			}
+			if (alphaBeta.isStopped()) {
+				break;
+			}
+
+			bestMove = move;
+			depth = iteration;
+			statistics.iteration(depth, Duration.ofNanos(System.nanoTime() - iterationStart));
+			progress.accept(new SearchProgress(depth, alphaBeta.getScore(), bestMove, nodes,
+					Duration.ofNanos(System.nanoTime() - start)));
+			if (AlphaBeta.isDecided(alphaBeta.getScore())) {
+				break;
+			}
+			if (!pondering && (System.nanoTime() - start) * 2 > timeBudget.toNanos()) { //next iteration would not be completed anyway
+				break;
+			}
+		}
+		alphaBeta.limit(Long.MAX_VALUE, Long.MAX_VALUE);
+		pondering = false;
+		statistics.elapsed(Duration.ofNanos(System.nanoTime() - searchStart));
+		if (event.shouldCommit()) {
+			event.maxDepth = maxDepth;
+			event.depth = depth;
+			event.nodes = nodes;
+			event.pondering = pondered;
+			event.commit();
+		}
+
+		return bestMove;
+	}
+
+	/**
+	 * Takes exact result of the position kept in the table by previous searches as a completed iteration.
+	 * @return the best move of the result or {@link BitMove#NONE} if there is no such result
+	 */
+	private long reuse(BitBoard board, long[] moves, int count) {
+		long entry = alphaBeta.getTable().probe(board.hash());
+		if (entry == 0L || TranspositionTable.bound(entry) != TranspositionTable.EXACT
+				|| AlphaBeta.isDecided(TranspositionTable.score(entry))) {
+			return BitMove.NONE;
+		}
+		for (int i = 0; i < count; i++) {
+			if (TranspositionTable.isBestMove(entry, moves[i])) {
+				depth = TranspositionTable.depth(entry);
+				statistics.depth(depth);
+				progress.accept(new SearchProgress(depth, TranspositionTable.score(entry), moves[i], 0,
+						Duration.ofNanos(System.nanoTime() - start)));
+				return moves[i];
+			}
+		}
+		return BitMove.NONE;
+	}
+
+	/**
+	 * Makes the following search ponder: search on time of the opponent, e.g. of the position after the expected reply.
+	 * Pondering search is stopped only by cancellation, unless {@link #ponderHit()} gives it the time budget.
+	 */
+	public void ponder() {
+		start = System.nanoTime();
+		deadline = Long.MAX_VALUE;
+		pondering = true;
+	}
+
+	/**
+	 * Position searched by pondering is the actual one, so time budget starts now and the result is used.
+	 * It may be called before the pondering search has started.
+	 */
+	public void ponderHit() {
+		start = System.nanoTime();
+		deadline = start + timeBudget.toNanos();
+		pondering = false;
+	}
+
+	/**
+	 * @return true if the following or running search ponders and has not been hit yet
+	 */
+	public boolean isPondering() {
+		return pondering;
+	}
+
+	/**
+	 * @return depth of the deepest iteration completed by the latest search
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return nodes visited by all iterations of the latest search
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return counters of all iterations of the latest search
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+}
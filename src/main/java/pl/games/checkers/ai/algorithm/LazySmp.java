@@ -0,0 +1,181 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.TranspositionTable;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.Pawn;
+
+import java.time.Duration;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Parallel search (Lazy SMP): the main search is {@link IterativeDeepening} in the calling thread,
+ * helpers run their own iterative deepening on copies of the board in {@link EngineExecutor} threads.
+ * All searches share one {@link TranspositionTable}, so helpers fill it with results which make the main search faster.
+ * Helpers start one ply deeper every second thread, so they do not repeat the same work at the same time.
+ * Result is the move of the main search, helpers are stopped when it ends, so pondering of the main search applies to all.
+ * {@link #getStatistics()} adds counters of helpers to those of the main search, which are left unchanged.
+ */
+public class LazySmp implements NextMove {
+
+	private final EngineExecutor executor;
+	private final Duration timeBudget;
+	private final AlphaBeta[] searches;
+	private final IterativeDeepening main;
+	private BooleanSupplier cancelled = () -> false;
+	private long nodes; //nodes visited by all threads in the latest search
+	private SearchStatistics statistics = new SearchStatistics();
+
+	public LazySmp(int threads, Duration timeBudget) {
+		this(EngineExecutor.getInstance(), threads, timeBudget, AlphaBeta.DEFAULT_TABLE_SIZE);
+	}
+
+	/**
+	 * @param tableSize size of the shared transposition table in MB
+	 */
+	public LazySmp(EngineExecutor executor, int threads, Duration timeBudget, int tableSize) {
+		TranspositionTable table = new TranspositionTable(tableSize, TranspositionTable.Replacement.DEPTH_PREFERRED);
+		this.executor = executor;
+		this.timeBudget = timeBudget;
+		this.searches = new AlphaBeta[Math.max(1, threads)];
+		for (int i = 0; i < searches.length; i++) {
+			searches[i] = new AlphaBeta(table);
+		}
+		this.main = new IterativeDeepening(searches[0], timeBudget, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see AlphaBeta#cancellation(BooleanSupplier)
+	 */
+	public LazySmp cancellation(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		main.cancellation(cancelled);
+		return this;
+	}
+
+	/**
+	 * @see IterativeDeepening#progress(Consumer)
+	 */
+	public LazySmp progress(Consumer<SearchProgress> progress) {
+		main.progress(progress);
+		return this;
+	}
+
+	/**
+	 * @see IterativeDeepening#ponder()
+	 */
+	public void ponder() {
+		main.ponder();
+	}
+
+	/**
+	 * @see IterativeDeepening#ponderHit()
+	 */
+	public void ponderHit() {
+		main.ponderHit();
+	}
+
+	public boolean isPondering() {
+		return main.isPondering();
+	}
+
+	@Override
+	public Pawn nextMove(final GameTree gameTree) {
+		BitBoard board = BitBoard.create(gameTree.getBoard());
+		return MoveGenerator.toPawn(board, search(board, Math.max(1, gameTree.getDepth())));
+	}
+
+	/**
+	 * Age of the table is bumped before any helper is submitted. Helpers are submitted when the main search
+	 * has taken the result kept in the table for the position, so they do not replace it before.
+	 * Helpers which have not started before the main search ends do nothing,
+	 * so the calling thread waits only for helpers which are running and stop soon.
+	 * @return the best move of the main search
+	 */
+	public long search(BitBoard board, int maxDepth) {
+		AtomicBoolean done = new AtomicBoolean();
+		Phaser running = new Phaser(1); //the calling thread and helpers which have started
+		AtomicLong helperNodes = new AtomicLong();
+		SearchStatistics helperStatistics = new SearchStatistics();
+		BooleanSupplier stop = () -> done.get() || cancelled.getAsBoolean();
+
+		getTable().newSearch();
+		long move;
+		try {
+			move = main.search(board, maxDepth, () -> {
+				for (int i = 1; i < searches.length; i++) {
+					AlphaBeta helper = searches[i].cancellation(stop);
+					BitBoard copy = board.copy();
+					int firstDepth = 1 + i % 2;
+					executor.submit(() -> {
+						running.register();
+						try {
+							for (int depth = firstDepth; !done.get() && depth <= Math.min(maxDepth, AlphaBeta.MAX_DEPTH); depth++) {
+								helper.search(copy, depth);
+								helperNodes.addAndGet(helper.getNodes());
+								synchronized (helperStatistics) {
+									helperStatistics.add(helper.getStatistics());
+								}
+							}
+						} finally {
+							running.arriveAndDeregister();
+						}
+						return null;
+					}, () -> done.set(true));
+				}
+			});
+		} finally {
+			done.set(true);
+			running.arriveAndAwaitAdvance();
+		}
+		nodes = main.getNodes() + helperNodes.get();
+		SearchStatistics total = new SearchStatistics(); //statistics of the main search are not changed
+		total.iterationsOf(main.getStatistics());
+		total.add(main.getStatistics());
+		synchronized (helperStatistics) {
+			total.add(helperStatistics);
+		}
+		statistics = total;
+		return move;
+	}
+
+	public TranspositionTable getTable() {
+		return searches[0].getTable();
+	}
+
+	public int getThreads() {
+		return searches.length;
+	}
+
+	public Duration getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * @return depth of the deepest iteration completed by the main search
+	 */
+	public int getDepth() {
+		return main.getDepth();
+	}
+
+	/**
+	 * @return nodes visited by all threads in the latest search
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return counters of all threads in the latest search
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+}
@@ -0,0 +1,338 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Monte Carlo tree search with UCT: walks the tree by the best upper confidence bound, expands the leaf
+ * and plays random moves until the game ends, then counts the result in all nodes of the walk.
+ * Playouts run in parallel: the calling thread and helpers in {@link EngineExecutor} share one tree.
+ * Visits and rewards are atomic counters of the nodes, a walk adds virtual loss to its nodes until its result
+ * is counted, so other threads choose other paths meanwhile.
+ * Nodes are kept in a pool of fixed size, which is recycled by every search; when it is full, leaves are not expanded.
+ * Search ends when time budget or number of playouts is spent. Result is the most visited move of the root.
+ */
+public class MonteCarloTreeSearch implements NextMove {
+
+	public static final int DEFAULT_MAX_NODES = 1 << 18;
+
+	private static final double EXPLORATION = Math.sqrt(2);
+	private static final int VIRTUAL_LOSS = 3;
+	private static final int MAX_PATH = 128;
+	private static final int MAX_PLAYOUT = 150; //plies of a random game, then it is decided by material
+	private static final int WIN = 2; //rewards are counted in half points
+	private static final int DRAW = 1;
+	private static final int KING_WEIGHT = 3;
+
+	private static final int UNEXPANDED = 0;
+	private static final int EXPANDING = 1;
+	private static final int EXPANDED = 2;
+	private static final int LEAF = 3; //pool was full
+
+	private final EngineExecutor executor;
+	private final int threads;
+	private final Duration timeBudget;
+	private final long maxPlayouts;
+
+	//pool of nodes, node 0 is the root; children of a node are consecutive
+	private final long[] moves; //move from the parent to the node
+	private final int[] firstChild;
+	private final int[] childCount;
+	private final AtomicIntegerArray state; //children of the node are visible when it is EXPANDED
+	private final AtomicIntegerArray visits;
+	private final AtomicIntegerArray virtualLosses;
+	private final AtomicLongArray rewards; //of the pawn type which made the move to the node
+	private final AtomicInteger allocated = new AtomicInteger();
+	private final AtomicLong playouts = new AtomicLong();
+	private BooleanSupplier cancelled = () -> false;
+
+	public MonteCarloTreeSearch(int threads, Duration timeBudget) {
+		this(EngineExecutor.getInstance(), threads, timeBudget, Long.MAX_VALUE, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * @param maxPlayouts search ends after this number of playouts, even if time budget is not spent
+	 * @param maxNodes size of the pool of nodes, more than {@link MoveGenerator#MAX_MOVES}, so children of the root fit
+	 */
+	public MonteCarloTreeSearch(EngineExecutor executor, int threads, Duration timeBudget, long maxPlayouts, int maxNodes) {
+		if (maxNodes <= MoveGenerator.MAX_MOVES) {
+			throw new IllegalArgumentException("Pool of " + maxNodes + " nodes cannot hold children of the root");
+		}
+		this.executor = executor;
+		this.threads = Math.max(1, threads);
+		this.timeBudget = timeBudget;
+		this.maxPlayouts = maxPlayouts;
+		this.moves = new long[maxNodes];
+		this.firstChild = new int[maxNodes];
+		this.childCount = new int[maxNodes];
+		this.state = new AtomicIntegerArray(maxNodes);
+		this.visits = new AtomicIntegerArray(maxNodes);
+		this.virtualLosses = new AtomicIntegerArray(maxNodes);
+		this.rewards = new AtomicLongArray(maxNodes);
+	}
+
+	/**
+	 * @see AlphaBeta#cancellation(BooleanSupplier)
+	 */
+	public MonteCarloTreeSearch cancellation(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		return this;
+	}
+
+	@Override
+	public Pawn nextMove(final GameTree gameTree) {
+		BitBoard board = BitBoard.create(gameTree.getBoard());
+		return MoveGenerator.toPawn(board, search(board));
+	}
+
+	/**
+	 * Board is not changed, each thread plays on its own copy.
+	 * @return the most visited move of pawn type to move or {@link BitMove#NONE} if there is no move
+	 */
+	public long search(BitBoard board) {
+		long[] rootMoves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), rootMoves);
+		if (count <= 1) { //nothing to think about
+			return count == 0 ? BitMove.NONE : rootMoves[0];
+		}
+
+		recycle();
+		long deadline = System.nanoTime() + timeBudget.toNanos();
+		AtomicBoolean done = new AtomicBoolean();
+		Phaser running = new Phaser(1); //the calling thread and helpers which have started
+		BooleanSupplier stop = () -> done.get() || cancelled.getAsBoolean()
+				|| playouts.get() >= maxPlayouts || System.nanoTime() > deadline;
+
+		for (int i = 1; i < threads; i++) {
+			BitBoard copy = board.copy();
+			executor.submit(() -> {
+				running.register();
+				try {
+					if (!done.get()) {
+						play(copy, stop);
+					}
+				} finally {
+					running.arriveAndDeregister();
+				}
+				return null;
+			}, () -> done.set(true));
+		}
+
+		try {
+			play(board.copy(), stop);
+		} finally {
+			done.set(true);
+			running.arriveAndAwaitAdvance();
+		}
+		long move = mostVisited();
+		return move == BitMove.NONE ? rootMoves[0] : move; //stopped before the first playout
+	}
+
+	public long getPlayouts() {
+		return playouts.get();
+	}
+
+	/**
+	 * @return nodes of the tree built by the latest search
+	 */
+	public int getNodes() {
+		return Math.min(allocated.get(), moves.length);
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Clears nodes used by the previous search, the root is allocated.
+	 */
+	private void recycle() {
+		for (int node = 0; node < getNodes(); node++) {
+			state.set(node, UNEXPANDED);
+			visits.set(node, 0);
+			virtualLosses.set(node, 0);
+			rewards.set(node, 0);
+		}
+		allocated.set(1);
+		playouts.set(0);
+	}
+
+	/**
+	 * Runs playouts until stopped. Board is restored after each of them.
+	 */
+	private void play(BitBoard board, BooleanSupplier stop) {
+		Walk walk = new Walk(board);
+		Random random = ThreadLocalRandom.current();
+		PawnType rootTurn = board.getTurn();
+
+		while (!stop.getAsBoolean()) {
+			int node = 0;
+			walk.visit(node, BitMove.NONE);
+			while (state.get(node) == EXPANDED && childCount[node] > 0 && walk.length < MAX_PATH) {
+				node = select(node);
+				walk.visit(node, moves[node]);
+			}
+
+			PawnType winner;
+			if (state.get(node) == EXPANDED && childCount[node] == 0) { //no move, game is lost
+				winner = board.getTurn().negate();
+			} else {
+				if ((node == 0 || visits.get(node) > 0) && walk.length < MAX_PATH && expand(node, board, walk.buffer)) {
+					node = firstChild[node] + random.nextInt(childCount[node]);
+					walk.visit(node, moves[node]);
+				}
+				winner = playout(walk, random);
+			}
+
+			backpropagate(walk, rootTurn, winner);
+			playouts.incrementAndGet();
+			walk.undo();
+		}
+	}
+
+	/**
+	 * @return child with the best upper confidence bound, counting virtual losses as visits without reward
+	 */
+	private int select(int node) {
+		int first = firstChild[node];
+		double logVisits = Math.log(Math.max(1, visits.get(node) + virtualLosses.get(node)));
+		int best = first;
+		double bestValue = Double.NEGATIVE_INFINITY;
+		for (int child = first; child < first + childCount[node]; child++) {
+			int n = visits.get(child) + virtualLosses.get(child);
+			if (n == 0) {
+				return child;
+			}
+			double value = rewards.get(child) / (double) (WIN * n) + EXPLORATION * Math.sqrt(logVisits / n);
+			if (value > bestValue) {
+				bestValue = value;
+				best = child;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Creates children of the node, only one thread expands a node.
+	 * @return true if node has children now
+	 */
+	private boolean expand(int node, BitBoard board, long[] buffer) {
+		if (!state.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+			return false;
+		}
+		int count = MoveGenerator.generate(board, board.getTurn(), buffer);
+		int first = count == 0 ? 0 : allocated.getAndAdd(count);
+		if (first + count > moves.length) {
+			state.set(node, LEAF);
+			return false;
+		}
+		System.arraycopy(buffer, 0, moves, first, count);
+		firstChild[node] = first;
+		childCount[node] = count;
+		state.set(node, EXPANDED);
+		return count > 0;
+	}
+
+	/**
+	 * Plays random moves.
+	 * @return winner or null if the game is drawn, game which does not end is decided by material
+	 */
+	private PawnType playout(Walk walk, Random random) {
+		BitBoard board = walk.board;
+		for (int i = 0; i < MAX_PLAYOUT; i++) {
+			int count = MoveGenerator.generate(board, board.getTurn(), walk.buffer);
+			if (count == 0) {
+				return board.getTurn().negate();
+			}
+			walk.make(walk.buffer[random.nextInt(count)]);
+		}
+		int black = material(board.black(), board.kings());
+		int white = material(board.white(), board.kings());
+		return black > white ? PawnType.BLACK : white > black ? PawnType.WHITE : null;
+	}
+
+	private void backpropagate(Walk walk, PawnType rootTurn, PawnType winner) {
+		visits.incrementAndGet(walk.path[0]);
+		for (int i = 1; i < walk.length; i++) {
+			int node = walk.path[i];
+			PawnType mover = i % 2 == 1 ? rootTurn : rootTurn.negate();
+			rewards.addAndGet(node, winner == null ? DRAW : winner == mover ? WIN : 0);
+			visits.incrementAndGet(node);
+			virtualLosses.addAndGet(node, -VIRTUAL_LOSS);
+		}
+	}
+
+	private long mostVisited() {
+		long best = BitMove.NONE;
+		int bestVisits = -1;
+		for (int child = firstChild[0]; state.get(0) == EXPANDED && child < firstChild[0] + childCount[0]; child++) {
+			if (visits.get(child) > bestVisits) {
+				bestVisits = visits.get(child);
+				best = moves[child];
+			}
+		}
+		return best;
+	}
+
+	private static int material(int pawns, int kings) {
+		return Integer.bitCount(pawns & ~kings) + KING_WEIGHT * Integer.bitCount(pawns & kings);
+	}
+
+	/**
+	 * Nodes and moves of one playout of a thread, arrays are reused by all its playouts.
+	 */
+	private class Walk {
+
+		private final BitBoard board;
+		private final int[] path = new int[MAX_PATH];
+		private final long[] played = new long[MAX_PATH + MAX_PLAYOUT];
+		private final long[] buffer = new long[MoveGenerator.MAX_MOVES];
+		private int length;
+		private int plies;
+
+		private Walk(BitBoard board) {
+			this.board = board;
+		}
+
+		/**
+		 * Adds node to the path, the move to a node other than the root is made and virtual loss is added.
+		 */
+		private void visit(int node, long move) {
+			path[length++] = node;
+			if (move != BitMove.NONE) {
+				virtualLosses.addAndGet(node, VIRTUAL_LOSS);
+				make(move);
+			}
+		}
+
+		private void make(long move) {
+			board.makeMove(move);
+			played[plies++] = move;
+		}
+
+		private void undo() {
+			while (plies > 0) {
+				board.unmakeMove(played[--plies]);
+			}
+			length = 0;
+		}
+
+	}
+
+}
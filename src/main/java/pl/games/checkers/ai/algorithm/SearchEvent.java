@@ -0,0 +1,34 @@
+package pl.games.checkers.ai.algorithm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a search of {@link IterativeDeepening}, from its start to its end.
+ * Like all events of the engine, it is disabled by default, enabled it is recorded by name.
+ */
+@Name("pl.games.checkers.Search")
+@Label("Search")
+@Description("Search for the next move, all iterations of iterative deepening")
+@Category({ "Checkers", "Engine" })
+@Enabled(false)
+final class SearchEvent extends Event {
+
+	@Label("Max Depth")
+	int maxDepth;
+
+	@Label("Depth")
+	@Description("Depth of the deepest completed iteration")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Pondering")
+	boolean pondering;
+
+}
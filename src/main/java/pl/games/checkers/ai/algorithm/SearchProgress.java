@@ -0,0 +1,58 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.model.BitMove;
+
+import java.time.Duration;
+
+/**
+ * State of a search after a completed iteration of {@link IterativeDeepening}.
+ */
+public class SearchProgress {
+
+	private final int depth;
+	private final long score;
+	private final long bestMove;
+	private final long nodes;
+	private final Duration elapsed;
+
+	public SearchProgress(int depth, long score, long bestMove, long nodes, Duration elapsed) {
+		this.depth = depth;
+		this.score = score;
+		this.bestMove = bestMove;
+		this.nodes = nodes;
+		this.elapsed = elapsed;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return score from point of view of pawn type to move
+	 */
+	public long getScore() {
+		return score;
+	}
+
+	/**
+	 * @return the best move as {@link BitMove}
+	 */
+	public long getBestMove() {
+		return bestMove;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public Duration getElapsed() {
+		return elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("depth %d, score %d, move %s, nodes %d, %d ms",
+				depth, score, BitMove.toString(bestMove), nodes, elapsed.toMillis());
+	}
+
+}
@@ -0,0 +1,138 @@
+package pl.games.checkers.ai.algorithm;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counters of a search, to tell why it is slow: nodes, cutoffs, evaluations and transposition table lookups.
+ * {@link AlphaBeta} counts one search to a fixed depth, {@link IterativeDeepening} sums its iterations
+ * and keeps their times, {@link LazySmp} adds counters of helper threads.
+ * A new object is created for each search, so statistics of a finished search do not change anymore.
+ */
+public class SearchStatistics {
+
+	long nodes;
+	long betaCutoffs;
+	long firstMoveCutoffs; //cutoffs by the first move searched
+	long evaluations;
+	long tableProbes;
+	long tableHits;
+	int maxPly; //the deepest ply reached, including quiescence
+	private int depth;
+	private Duration elapsed = Duration.ZERO;
+	private final List<Duration> iterations = new ArrayList<>();
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return nodes per second, 0 if no time has elapsed
+	 */
+	public long getNodesPerSecond() {
+		long nanos = elapsed.toNanos();
+		return nanos == 0 ? 0 : (long) (nodes * 1e9 / nanos);
+	}
+
+	public long getBetaCutoffs() {
+		return betaCutoffs;
+	}
+
+	public long getFirstMoveCutoffs() {
+		return firstMoveCutoffs;
+	}
+
+	/**
+	 * @return part of beta cutoffs made by the first move, the closer to 1 the better the move ordering
+	 */
+	public double getFirstMoveCutoffRate() {
+		return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+	}
+
+	/**
+	 * @return number of rated positions
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	public long getTableProbes() {
+		return tableProbes;
+	}
+
+	public long getTableHits() {
+		return tableHits;
+	}
+
+	/**
+	 * @return part of transposition table probes which found the position, 0 if there was none
+	 */
+	public double getTableHitRate() {
+		return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+	}
+
+	public int getMaxPly() {
+		return maxPly;
+	}
+
+	/**
+	 * @return depth of the deepest completed iteration
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	public Duration getElapsed() {
+		return elapsed;
+	}
+
+	/**
+	 * @return time of each completed iteration, from depth 1 or from the depth reused from transposition table
+	 */
+	public List<Duration> getIterations() {
+		return Collections.unmodifiableList(iterations);
+	}
+
+	void add(SearchStatistics other) {
+		nodes += other.nodes;
+		betaCutoffs += other.betaCutoffs;
+		firstMoveCutoffs += other.firstMoveCutoffs;
+		evaluations += other.evaluations;
+		tableProbes += other.tableProbes;
+		tableHits += other.tableHits;
+		maxPly = Math.max(maxPly, other.maxPly);
+	}
+
+	/**
+	 * Takes depth, time and iterations of the search, counters are added by {@link #add(SearchStatistics)}.
+	 */
+	void iterationsOf(SearchStatistics search) {
+		depth = search.depth;
+		elapsed = search.elapsed;
+		iterations.addAll(search.iterations);
+	}
+
+	void iteration(int depth, Duration time) {
+		this.depth = depth;
+		iterations.add(time);
+	}
+
+	void depth(int depth) {
+		this.depth = depth;
+	}
+
+	void elapsed(Duration elapsed) {
+		this.elapsed = elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("depth %d, max ply %d, nodes %d, %d nps, cutoffs %d (%.0f%% first), evaluations %d, "
+						+ "table hits %.0f%%, %d ms",
+				depth, maxPly, nodes, getNodesPerSecond(), betaCutoffs, getFirstMoveCutoffRate() * 100, evaluations,
+				getTableHitRate() * 100, elapsed.toMillis());
+	}
+
+}
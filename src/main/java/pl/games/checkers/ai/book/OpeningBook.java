@@ -0,0 +1,149 @@
+package pl.games.checkers.ai.book;
+
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Moves of opening positions made by {@link OpeningBookBuilder}, with weights of how good or how often played they are.
+ * Book file is mapped into memory by {@link FileChannel#map} and looked up by binary search in place, nothing is copied.
+ * Path of the file is given by system property {@value #FILE_PROPERTY}, without it the book is empty.
+ * <p>
+ * File starts with {@link #MAGIC} and number of entries, then there are entries sorted by hash and move:
+ * hash of the position with pawn type to move (long), move (long, see {@link BitMove}) and weight (int).
+ */
+public final class OpeningBook {
+
+	public static final String FILE_PROPERTY = "checkers.engine.book";
+
+	static final int MAGIC = 0x436b4f62; //"CkOb"
+	static final int HEADER_BYTES = 2 * Integer.BYTES;
+	static final int ENTRY_BYTES = 2 * Long.BYTES + Integer.BYTES;
+
+	private static final OpeningBook INSTANCE = new OpeningBook(System.getProperty(FILE_PROPERTY) != null
+			? Paths.get(System.getProperty(FILE_PROPERTY)) : null);
+
+	private final MappedByteBuffer entries;
+	private final int size;
+
+	/**
+	 * @param file book file or null for an empty book
+	 */
+	public OpeningBook(Path file) {
+		if (file == null) {
+			this.entries = null;
+			this.size = 0;
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.size = entries.getInt(Integer.BYTES);
+		if (entries.getInt(0) != MAGIC || entries.capacity() != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+			throw new IllegalStateException(file + " is not an opening book");
+		}
+	}
+
+	public static OpeningBook getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return number of entries, moves of all positions
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Chooses one of the legal moves of the position by random, with probability proportional to its weight.
+	 * @return move of pawn type to move or {@link BitMove#NONE} if the position is not in the book
+	 */
+	public long move(BitBoard board, Random random) {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		int first = first(board.hash());
+		long total = 0;
+		for (int i = first; i < size && hash(i) == board.hash(); i++) {
+			total += contains(moves, count, move(i)) ? weight(i) : 0;
+		}
+		if (total == 0) {
+			return BitMove.NONE;
+		}
+
+		long chosen = (long) (random.nextDouble() * total);
+		for (int i = first; ; i++) {
+			if (contains(moves, count, move(i))) {
+				chosen -= weight(i);
+				if (chosen < 0) {
+					return move(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return weight of the move in the position, 0 if it is not in the book
+	 */
+	public int weight(long hash, long move) {
+		for (int i = first(hash); i < size && hash(i) == hash; i++) {
+			if (move(i) == move) {
+				return weight(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return index of the first entry with the hash or of the first entry with a greater hash
+	 */
+	private int first(long hash) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (hash(middle) < hash) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long hash(int entry) {
+		return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+	}
+
+	private long move(int entry) {
+		return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES + Long.BYTES);
+	}
+
+	private int weight(int entry) {
+		return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 2 * Long.BYTES);
+	}
+
+	/**
+	 * Moves of the book are checked against legal moves, so a collision of hashes does not play an illegal move.
+	 */
+	private static boolean contains(long[] moves, int count, long move) {
+		for (int i = 0; i < count; i++) {
+			if (moves[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,153 @@
+package pl.games.checkers.ai.book;
+
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.algorithm.AlphaBeta;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects entries of {@link OpeningBook} and writes them sorted into a book file.
+ * Entries come from searches of positions from the initial one, where each move is searched to a fixed depth
+ * and moves not much worse than the best one are kept, or from records of games, where weight of a move is
+ * the number of games in which it was played. Weights of the same move in the same position are summed.
+ * <p>
+ * Record of a game is one line of moves in numeric notation: squares are numbered from 1 in the order of {@link Squares},
+ * a walk is written "from-to", a beating "fromxto" with optional squares where pawn lands between.
+ * Move numbers ("1.") are skipped, a result ("1-0", "0-1", "1/2-1/2", "*") ends the game.
+ * Run by gradle task buildOpeningBook, arguments: book file, then "search" with number of plies (default 6)
+ * and depth (default 10), or "games" with file of records and number of plies (default 16).
+ */
+public class OpeningBookBuilder {
+
+	public static final int MARGIN = 3; //moves with score lower by more than this are not kept
+	private static final Logger LOGGER = LoggerFactory.getLogger(OpeningBookBuilder.class);
+	private static final Set<String> RESULTS = Set.of("1-0", "0-1", "1/2-1/2", "*");
+
+	private final Map<Long, Map<Long, Integer>> entries = new TreeMap<>(); //by hash and move
+
+	public static void main(String[] args) throws IOException {
+		OpeningBookBuilder builder = new OpeningBookBuilder();
+		if ("games".equals(args[1])) {
+			int plies = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+			for (String record : Files.readAllLines(Paths.get(args[2]))) {
+				builder.addGame(record, plies);
+			}
+		} else {
+			int plies = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+			int depth = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+			for (PawnType pawnType : PawnType.values()) {
+				builder.addSearch(BitBoard.initial(pawnType), plies, depth);
+			}
+		}
+		builder.write(Paths.get(args[0]));
+		LOGGER.info("{} entries written to {}", builder.size(), args[0]);
+	}
+
+	public void add(long hash, long move, int weight) {
+		entries.computeIfAbsent(hash, h -> new TreeMap<>()).merge(move, weight, Integer::sum);
+	}
+
+	/**
+	 * Searches positions from the given one, both pawn types play moves which are kept, until given number of plies.
+	 * Weight of a kept move is the higher the closer its score is to the best one.
+	 */
+	public void addSearch(BitBoard board, int plies, int depth) {
+		addSearch(board.copy(), plies, depth, new AlphaBeta(), new HashSet<>());
+	}
+
+	/**
+	 * Adds moves of the first plies of the game.
+	 * @throws IllegalArgumentException if a move is not legal
+	 */
+	public void addGame(String record, int plies) {
+		String[] tokens = record.trim().split("\\s+");
+		BitBoard board = null;
+		int ply = 0;
+		for (String token : tokens) {
+			if (token.isEmpty() || token.endsWith(".")) {
+				continue;
+			}
+			if (RESULTS.contains(token) || ply == plies) {
+				break;
+			}
+			if (board == null) { //pawn type of the first move starts the game
+				board = BitBoard.initial(PawnType.BLACK);
+				int from = Integer.parseInt(token.split("[-x]")[0]) - 1;
+				PawnType first = from >= 0 && from < Squares.COUNT ? board.typeAt(Squares.row(from), Squares.column(from)) : null;
+				board.setTurn(first != null ? first : PawnType.BLACK);
+			}
+			long move = MoveGenerator.parse(board, token);
+			if (move == BitMove.NONE) {
+				throw new IllegalArgumentException(String.format("Illegal move %s in %s", token, record));
+			}
+			add(board.hash(), move, 1);
+			board.makeMove(move);
+			ply++;
+		}
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public int size() {
+		return entries.values().stream().mapToInt(Map::size).sum();
+	}
+
+	public void write(Path file) throws IOException {
+		try (OutputStream stream = Files.newOutputStream(file);
+				DataOutputStream output = new DataOutputStream(stream)) {
+			output.writeInt(OpeningBook.MAGIC);
+			output.writeInt(size());
+			for (Map.Entry<Long, Map<Long, Integer>> position : entries.entrySet()) {
+				for (Map.Entry<Long, Integer> move : position.getValue().entrySet()) {
+					output.writeLong(position.getKey());
+					output.writeLong(move.getKey());
+					output.writeInt(move.getValue());
+				}
+			}
+		}
+	}
+
+	private void addSearch(BitBoard board, int plies, int depth, AlphaBeta alphaBeta, Set<Long> visited) {
+		if (plies == 0 || !visited.add(board.hash())) {
+			return;
+		}
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		long[] scores = new long[count];
+		long best = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			alphaBeta.search(board, depth - 1);
+			board.unmakeMove(moves[i]);
+			scores[i] = -alphaBeta.getScore();
+			best = Math.max(best, scores[i]);
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (best - scores[i] <= MARGIN) {
+				add(board.hash(), moves[i], (int) (MARGIN + 1 - (best - scores[i])));
+				board.makeMove(moves[i]);
+				addSearch(board, plies - 1, depth, alphaBeta, visited);
+				board.unmakeMove(moves[i]);
+			}
+		}
+	}
+
+}
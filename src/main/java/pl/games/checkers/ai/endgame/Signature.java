@@ -0,0 +1,200 @@
+package pl.games.checkers.ai.endgame;
+
+import pl.games.checkers.model.Squares;
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Material of an endgame: numbers of men and kings of both pawn types, each signature has its own table.
+ * Position is indexed as a combination of squares for each of four groups of pawns:
+ * black men, black kings, white men and white kings. Men are never on the row where they are promoted,
+ * so their groups take only the other squares. Combinations where groups overlap are not positions,
+ * they are a small price for an index computed without tables.
+ * Board rotated by 180 degrees with pawn types swapped is the same endgame, so only canonical signatures,
+ * where black has not less than white, have tables (see {@link #mirror(int)}).
+ */
+public final class Signature {
+
+	private static final int PER_ROW = Checkerboard.WIDTH / 2;
+	private static final int MAN_SQUARES = Squares.COUNT - PER_ROW;
+	private static final long[][] BINOMIALS = new long[Squares.COUNT + 1][Squares.COUNT + 1];
+
+	static {
+		for (int n = 0; n <= Squares.COUNT; n++) {
+			BINOMIALS[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+			}
+		}
+	}
+
+	private final int blackMen;
+	private final int blackKings;
+	private final int whiteMen;
+	private final int whiteKings;
+	private final long[] radixes; //sizes of the groups
+
+	public Signature(int blackMen, int blackKings, int whiteMen, int whiteKings) {
+		this.blackMen = blackMen;
+		this.blackKings = blackKings;
+		this.whiteMen = whiteMen;
+		this.whiteKings = whiteKings;
+		this.radixes = new long[] { BINOMIALS[MAN_SQUARES][blackMen], BINOMIALS[Squares.COUNT][blackKings],
+				BINOMIALS[MAN_SQUARES][whiteMen], BINOMIALS[Squares.COUNT][whiteKings] };
+	}
+
+	public static Signature of(int black, int white, int kings) {
+		return new Signature(Integer.bitCount(black & ~kings), Integer.bitCount(black & kings),
+				Integer.bitCount(white & ~kings), Integer.bitCount(white & kings));
+	}
+
+	/**
+	 * @return signature as a number, which identifies its table
+	 */
+	public static int code(int black, int white, int kings) {
+		return Integer.bitCount(black & ~kings) | Integer.bitCount(black & kings) << 4
+				| Integer.bitCount(white & ~kings) << 8 | Integer.bitCount(white & kings) << 12;
+	}
+
+	/**
+	 * @return true if black has more pieces than white, or as many pieces and not less kings
+	 */
+	public static boolean isCanonical(int black, int white, int kings) {
+		int blackPieces = Integer.bitCount(black);
+		int whitePieces = Integer.bitCount(white);
+		return blackPieces > whitePieces
+				|| (blackPieces == whitePieces && Integer.bitCount(black & kings) >= Integer.bitCount(white & kings));
+	}
+
+	/**
+	 * Rotates the mask by 180 degrees, square numbering goes from the top left corner, so it is reversed.
+	 */
+	public static int mirror(int mask) {
+		return Integer.reverse(mask);
+	}
+
+	/**
+	 * @return canonical signatures of endgames, where each pawn type has a pawn, with up to given number of pawns,
+	 * ordered so that moves with beating or promotion lead to signatures before
+	 */
+	public static List<Signature> upTo(int pieces) {
+		List<Signature> signatures = new ArrayList<>();
+		for (int total = 2; total <= pieces; total++) {
+			for (int black = 1; black < total; black++) {
+				int white = total - black;
+				for (int blackKings = 0; blackKings <= black; blackKings++) {
+					for (int whiteKings = 0; whiteKings <= white; whiteKings++) {
+						Signature signature = new Signature(black - blackKings, blackKings, white - whiteKings, whiteKings);
+						if (signature.isCanonical()) {
+							signatures.add(signature);
+						}
+					}
+				}
+			}
+		}
+		signatures.sort(Comparator.comparingInt(Signature::pieces).thenComparingInt(Signature::men));
+		return signatures;
+	}
+
+	public int pieces() {
+		return blackMen + blackKings + whiteMen + whiteKings;
+	}
+
+	public int men() {
+		return blackMen + whiteMen;
+	}
+
+	public int code() {
+		return blackMen | blackKings << 4 | whiteMen << 8 | whiteKings << 12;
+	}
+
+	public boolean isCanonical() {
+		int black = blackMen + blackKings;
+		int white = whiteMen + whiteKings;
+		return black > white || (black == white && blackKings >= whiteKings);
+	}
+
+	/**
+	 * @return number of indexes of positions with one pawn type to move
+	 */
+	public long size() {
+		return radixes[0] * radixes[1] * radixes[2] * radixes[3];
+	}
+
+	/**
+	 * @return index of the position, which has to be of this signature
+	 */
+	public long index(int black, int white, int kings) {
+		long index = rank(black & ~kings, 0);
+		index = index * radixes[1] + rank(black & kings, 0);
+		index = index * radixes[2] + rank(white & ~kings, PER_ROW);
+		return index * radixes[3] + rank(white & kings, 0);
+	}
+
+	/**
+	 * Writes masks of black, white and kings of the index to the array.
+	 * @return false if groups of pawns overlap, so the index is not a position
+	 */
+	public boolean position(long index, int[] masks) {
+		int whiteKingMask = unrank(index % radixes[3], whiteKings, 0);
+		index /= radixes[3];
+		int whiteManMask = unrank(index % radixes[2], whiteMen, PER_ROW);
+		index /= radixes[2];
+		int blackKingMask = unrank(index % radixes[1], blackKings, 0);
+		int blackManMask = unrank(index / radixes[1], blackMen, 0);
+
+		masks[0] = blackManMask | blackKingMask;
+		masks[1] = whiteManMask | whiteKingMask;
+		masks[2] = blackKingMask | whiteKingMask;
+		return Integer.bitCount(masks[0] | masks[1]) == pieces();
+	}
+
+	public String fileName() {
+		return String.format("%d%d%d%d.egtb", blackMen, blackKings, whiteMen, whiteKings);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof Signature && ((Signature) o).code() == code();
+	}
+
+	@Override
+	public int hashCode() {
+		return code();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d+%dK vs %d+%dK", blackMen, blackKings, whiteMen, whiteKings);
+	}
+
+	/**
+	 * @param offset number of the first square of the group, squares before it are never taken
+	 * @return rank of the combination in colexicographic order
+	 */
+	private static long rank(int mask, int offset) {
+		long rank = 0;
+		int k = 1;
+		for (mask >>>= offset; mask != 0; mask &= mask - 1) {
+			rank += BINOMIALS[Integer.numberOfTrailingZeros(mask)][k++];
+		}
+		return rank;
+	}
+
+	private static int unrank(long rank, int k, int offset) {
+		int mask = 0;
+		int square = Squares.COUNT;
+		for (; k > 0; k--) {
+			do {
+				square--;
+			} while (BINOMIALS[square][k] > rank);
+			rank -= BINOMIALS[square][k];
+			mask |= Squares.bit(square + offset);
+		}
+		return mask;
+	}
+
+}
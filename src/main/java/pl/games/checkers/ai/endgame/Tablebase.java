@@ -0,0 +1,183 @@
+package pl.games.checkers.ai.endgame;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.PawnType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Endgame databases made by {@link TablebaseGenerator}: result of each position with a few pawns,
+ * won or lost with the number of plies until the end of the game, or drawn.
+ * Each signature has its own file, which is mapped into memory by {@link FileChannel#map} when it is probed first,
+ * so tables are read by the operating system on demand and shared by all threads.
+ * Directory of the files is given by system property {@value #DIRECTORY_PROPERTY}, without it nothing is known.
+ * <p>
+ * File starts with {@link #MAGIC} and the signature code, then there is one byte per index of {@link Signature}
+ * for black to move, followed by the same for white to move. Byte is 0 for a draw,
+ * distance for a won position and -1 - distance for a lost one.
+ */
+public final class Tablebase {
+
+	public static final String DIRECTORY_PROPERTY = "checkers.engine.tablebase";
+	public static final int UNKNOWN = Integer.MIN_VALUE;
+	public static final int DRAW = 0;
+	public static final int MAX_DISTANCE = Byte.MAX_VALUE - 1;
+
+	static final int MAGIC = 0x436b5462; //"CkTb"
+	static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+	private static final int MAX_PIECES = 8;
+	private static final Table MISSING = new Table(null, null);
+	private static final Tablebase INSTANCE = new Tablebase(System.getProperty(DIRECTORY_PROPERTY) != null
+			? Paths.get(System.getProperty(DIRECTORY_PROPERTY)) : null);
+
+	private final Path directory;
+	private volatile int pieces;
+	private final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<>(1 << 16); //by signature code
+
+	/**
+	 * @param directory directory of table files or null for no tables
+	 */
+	public Tablebase(Path directory) {
+		this.directory = directory;
+		this.pieces = directory == null ? 0 : pieces(directory);
+	}
+
+	public static Tablebase getInstance() {
+		return INSTANCE;
+	}
+
+	public static int win(int distance) {
+		return distance;
+	}
+
+	public static int loss(int distance) {
+		return -1 - distance;
+	}
+
+	public static boolean isWin(int result) {
+		return result != UNKNOWN && result > 0;
+	}
+
+	public static boolean isLoss(int result) {
+		return result != UNKNOWN && result < 0;
+	}
+
+	/**
+	 * @return plies until the end of a won or lost game
+	 */
+	public static int distance(int result) {
+		return result > 0 ? result : -1 - result;
+	}
+
+	/**
+	 * @return the largest number of pawns of tables in the directory, positions with more pawns are not probed
+	 */
+	public int getPieces() {
+		return pieces;
+	}
+
+	public int probe(BitBoard board, PawnType pawnType) {
+		return probe(board.black(), board.white(), board.kings(), pawnType);
+	}
+
+	/**
+	 * @param pawnType pawn type to move
+	 * @return result for the pawn type to move or {@link #UNKNOWN} if there is no table of the position
+	 */
+	public int probe(int black, int white, int kings, PawnType pawnType) {
+		if ((pawnType == PawnType.BLACK ? black : white) == 0) {
+			return loss(0);
+		}
+		if (black == 0 || white == 0 || Integer.bitCount(black | white) > pieces) {
+			return UNKNOWN;
+		}
+		if (!Signature.isCanonical(black, white, kings)) {
+			int mirrored = Signature.mirror(black);
+			black = Signature.mirror(white);
+			white = mirrored;
+			kings = Signature.mirror(kings);
+			pawnType = pawnType.negate();
+		}
+
+		Table table = table(Signature.code(black, white, kings));
+		if (table == MISSING) {
+			return UNKNOWN;
+		}
+		long index = table.signature.index(black, white, kings) + (pawnType == PawnType.BLACK ? 0 : table.signature.size());
+		return table.data.get(HEADER_BYTES + (int) index);
+	}
+
+	/**
+	 * @return true if the table of the signature is in the directory
+	 */
+	public boolean contains(Signature signature) {
+		return table(signature.code()) != MISSING;
+	}
+
+	/**
+	 * Makes the table written to the directory after this object was created visible.
+	 */
+	void added(Signature signature) {
+		tables.set(signature.code(), null);
+		pieces = Math.max(pieces, signature.pieces());
+	}
+
+	private Table table(int code) {
+		Table table = tables.get(code);
+		if (table == null) {
+			tables.compareAndSet(code, null, map(code));
+			table = tables.get(code);
+		}
+		return table;
+	}
+
+	private Table map(int code) {
+		Signature signature = new Signature(code & 0xf, code >> 4 & 0xf, code >> 8 & 0xf, code >> 12 & 0xf);
+		Path file = directory.resolve(signature.fileName());
+		if (!Files.exists(file)) {
+			return MISSING;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (data.capacity() != HEADER_BYTES + 2 * signature.size()
+					|| data.getInt(0) != MAGIC || data.getInt(Integer.BYTES) != code) {
+				throw new IllegalStateException(file + " is not a table of " + signature);
+			}
+			return new Table(signature, data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static int pieces(Path directory) {
+		int pieces = 0;
+		for (Signature signature : Signature.upTo(MAX_PIECES)) {
+			if (Files.exists(directory.resolve(signature.fileName()))) {
+				pieces = Math.max(pieces, signature.pieces());
+			}
+		}
+		return pieces;
+	}
+
+	private static final class Table {
+
+		private final Signature signature;
+		private final ByteBuffer data; //mapped file, absolute reads are safe in many threads
+
+		private Table(Signature signature, ByteBuffer data) {
+			this.signature = signature;
+			this.data = data;
+		}
+
+	}
+
+}
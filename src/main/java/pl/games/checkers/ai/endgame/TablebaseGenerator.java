@@ -0,0 +1,248 @@
+package pl.games.checkers.ai.endgame;
+
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates {@link Tablebase} files by retrograde analysis, signature by signature in order of {@link Signature#upTo(int)},
+ * so moves with beating or promotion, which leave the signature, lead to tables written before.
+ * First, all moves of each position are generated: positions without move are lost, results of moves which leave
+ * the signature are probed, moves which stay in it are counted. Then results go backwards from the known positions
+ * by distance, with moves unmade from them: predecessor of a lost position is won,
+ * predecessor whose all moves lead to won positions is lost. Positions never reached are drawn.
+ * Tables which are in the directory already are not generated again.
+ * Run by gradle task generateTablebase, arguments: directory, number of pawns (default 4).
+ */
+public class TablebaseGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TablebaseGenerator.class);
+	private static final int CANNOT_LOSE = -1;
+	private static final PawnType[] TURNS = { PawnType.BLACK, PawnType.WHITE };
+
+	private final Path directory;
+	private final Tablebase tablebase;
+	private final long[] moves = new long[MoveGenerator.MAX_MOVES];
+	private final int[] masks = new int[3];
+
+	private Signature signature;
+	private byte[][] results; //per pawn type to move and index, 0 until won or lost
+	private int[][] remaining; //moves which stay in the signature and do not lead to a won position yet
+	private int[][] longest; //distance of the loss if all moves lead to won positions, CANNOT_LOSE if not
+	private long[][] queues; //positions to resolve per distance: index, pawn type and whether it is won
+	private int[] queueSizes;
+
+	public TablebaseGenerator(Path directory) {
+		this.directory = directory;
+		this.tablebase = new Tablebase(directory);
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path directory = Paths.get(args[0]);
+		int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		Files.createDirectories(directory);
+		new TablebaseGenerator(directory).generate(pieces);
+	}
+
+	/**
+	 * Generates tables of all signatures with up to given number of pawns.
+	 */
+	public void generate(int pieces) throws IOException {
+		for (Signature next : Signature.upTo(pieces)) {
+			if (!tablebase.contains(next)) {
+				long start = System.nanoTime();
+				generate(next);
+				LOGGER.info("{}: {} positions in {} ms", next, 2 * next.size(), (System.nanoTime() - start) / 1_000_000);
+			}
+		}
+	}
+
+	private void generate(Signature signature) throws IOException {
+		if (signature.size() > Integer.MAX_VALUE - Tablebase.HEADER_BYTES) {
+			throw new IllegalArgumentException(signature + " is too large");
+		}
+		int size = (int) signature.size();
+		this.signature = signature;
+		this.results = new byte[2][size];
+		this.remaining = new int[2][size];
+		this.longest = new int[2][size];
+		this.queues = new long[Tablebase.MAX_DISTANCE + 1][];
+		this.queueSizes = new int[queues.length];
+
+		for (int index = 0; index < size; index++) {
+			if (signature.position(index, masks)) {
+				for (int turn = 0; turn < TURNS.length; turn++) {
+					analyze(new BitBoard(masks[0], masks[1], masks[2]), index, turn);
+				}
+			}
+		}
+		for (int distance = 0; distance < queues.length; distance++) {
+			for (int i = 0; i < queueSizes[distance]; i++) {
+				resolve(queues[distance][i], distance);
+			}
+			queues[distance] = null;
+		}
+
+		write();
+		tablebase.added(signature);
+	}
+
+	/**
+	 * Counts moves of the position which stay in the signature and queues the position if its result is known
+	 * from moves which leave it.
+	 */
+	private void analyze(BitBoard board, int index, int turn) {
+		PawnType pawnType = TURNS[turn];
+		int count = MoveGenerator.generate(board, pawnType, moves);
+		int shortestWin = Integer.MAX_VALUE;
+		int longestLoss = count == 0 ? 0 : 1;
+		boolean drawn = false;
+		int inside = 0;
+
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			if (Signature.code(board.black(), board.white(), board.kings()) == signature.code()) {
+				inside++;
+			} else {
+				int result = tablebase.probe(board, pawnType.negate());
+				if (result == Tablebase.UNKNOWN) {
+					throw new IllegalStateException("No table of " + Signature.of(board.black(), board.white(), board.kings()));
+				}
+				if (Tablebase.isLoss(result)) {
+					shortestWin = Math.min(shortestWin, Tablebase.distance(result) + 1);
+				} else if (Tablebase.isWin(result)) {
+					longestLoss = Math.max(longestLoss, Tablebase.distance(result) + 1);
+				} else {
+					drawn = true;
+				}
+			}
+			board.unmakeMove(moves[i]);
+		}
+
+		remaining[turn][index] = inside;
+		if (shortestWin != Integer.MAX_VALUE) {
+			enqueue(index, turn, true, shortestWin);
+		}
+		if (drawn || shortestWin != Integer.MAX_VALUE) {
+			longestLoss = CANNOT_LOSE;
+		}
+		longest[turn][index] = longestLoss;
+		if (inside == 0 && longestLoss != CANNOT_LOSE) {
+			enqueue(index, turn, false, longestLoss);
+		}
+	}
+
+	/**
+	 * Stores result of the queued position, unless it is known already, and passes it to predecessors.
+	 */
+	private void resolve(long entry, int distance) {
+		int index = (int) (entry >>> 2);
+		int turn = (int) (entry >>> 1 & 1);
+		boolean won = (entry & 1) != 0;
+		if (results[turn][index] != 0) {
+			return;
+		}
+		results[turn][index] = (byte) (won ? Tablebase.win(distance) : Tablebase.loss(distance));
+
+		signature.position(index, masks);
+		int previous = 1 - turn;
+		PawnType moved = TURNS[previous];
+		int black = masks[0];
+		int white = masks[1];
+		int kings = masks[2];
+		int own = moved == PawnType.BLACK ? black : white;
+		int empty = ~(black | white);
+
+		for (int mask = own; mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			boolean king = (kings & Squares.bit(square)) != 0;
+			for (int direction = 0; direction < Squares.DIRECTIONS; direction++) {
+				if (king) {
+					for (int from : Squares.ray(square, direction)) {
+						if ((empty & Squares.bit(from)) == 0) {
+							break;
+						}
+						predecessor(black, white, kings, square, from, previous, won, distance);
+					}
+				} else if (Squares.rowStep(direction) == -moved.getDirection()) {
+					int from = Squares.neighbour(square, direction);
+					if (from != Squares.NONE && (empty & Squares.bit(from)) != 0) {
+						predecessor(black, white, kings, square, from, previous, won, distance);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the position where the pawn stood on square from, one walk before the resolved position.
+	 * It is a predecessor only if the walk was legal there, so if it had no beating.
+	 */
+	private void predecessor(int black, int white, int kings, int square, int from, int turn, boolean won, int distance) {
+		int move = Squares.bit(square) | Squares.bit(from);
+		if (TURNS[turn] == PawnType.BLACK) {
+			black ^= move;
+		} else {
+			white ^= move;
+		}
+		if ((kings & Squares.bit(square)) != 0) {
+			kings ^= move;
+		}
+
+		int index = (int) signature.index(black, white, kings);
+		if (results[turn][index] != 0
+				|| MoveGenerator.generateBeatings(new BitBoard(black, white, kings), TURNS[turn], moves) != 0) {
+			return;
+		}
+		if (won) {
+			if (longest[turn][index] != CANNOT_LOSE) {
+				longest[turn][index] = Math.max(longest[turn][index], distance + 1);
+				if (--remaining[turn][index] == 0) {
+					enqueue(index, turn, false, longest[turn][index]);
+				}
+			}
+		} else {
+			enqueue(index, turn, true, distance + 1);
+		}
+	}
+
+	private void enqueue(int index, int turn, boolean won, int distance) {
+		if (distance >= queues.length) {
+			throw new IllegalStateException(signature + " has a result longer than " + Tablebase.MAX_DISTANCE + " plies");
+		}
+		if (queues[distance] == null) {
+			queues[distance] = new long[64];
+		} else if (queueSizes[distance] == queues[distance].length) {
+			queues[distance] = Arrays.copyOf(queues[distance], 2 * queueSizes[distance]);
+		}
+		queues[distance][queueSizes[distance]++] = (long) index << 2 | turn << 1 | (won ? 1 : 0);
+	}
+
+	private void write() throws IOException {
+		Path file = directory.resolve(signature.fileName());
+		Path temporary = directory.resolve(signature.fileName() + ".tmp");
+		try (OutputStream stream = Files.newOutputStream(temporary);
+				DataOutputStream output = new DataOutputStream(stream)) {
+			output.writeInt(Tablebase.MAGIC);
+			output.writeInt(signature.code());
+			for (byte[] result : results) {
+				output.write(result);
+			}
+		}
+		Files.move(temporary, file);
+	}
+
+}
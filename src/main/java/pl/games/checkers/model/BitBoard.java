@@ -0,0 +1,301 @@
+package pl.games.checkers.model;
+
+import pl.games.checkers.Copier;
+import pl.games.checkers.ai.Evaluation;
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Board which keeps the playable squares as bit masks (see {@link Squares}), so copies and occupancy checks
+ * are a few register operations.
+ * Pawns returned by {@link #getPawn(int, int)} are created on demand and are detached from the board,
+ * so any change of a pawn has to be written back with {@link #setPawn(Position, Pawn)}.
+ * Like the hash, material of pawns rated by {@link Evaluation} is updated by every change instead of being recomputed.
+ */
+public class BitBoard extends Board<Pawn> implements Copier<BitBoard> {
+
+    private static final int INITIAL_ROWS = 3; //rows of pawns of each pawn type at the start of the game
+
+    private int black;
+    private int white;
+    private int kings;
+    private int material;
+
+    private int[] kingsHistory; //masks of kings before moves made by makeMove, allocated on first use
+    private long[] hashHistory;
+    private int[] materialHistory;
+    private int ply;
+
+    public static BitBoard create(Board board) {
+        if (board instanceof BitBoard) {
+            return ((BitBoard) board).copy();
+        }
+        BitBoard bitBoard = new BitBoard(board.pawnsAsList());
+        bitBoard.setTurn(board.getTurn());
+        return bitBoard;
+    }
+
+    /**
+     * @return position at the start of the game, black pawns are on the top rows
+     */
+    public static BitBoard initial(PawnType pawnType) {
+        int black = 0;
+        int white = 0;
+        for (int square = 0; square < Squares.COUNT; square++) {
+            if (Squares.row(square) < INITIAL_ROWS) {
+                black |= Squares.bit(square);
+            } else if (Squares.row(square) >= Checkerboard.HEIGHT - INITIAL_ROWS) {
+                white |= Squares.bit(square);
+            }
+        }
+        BitBoard board = new BitBoard(black, white, 0);
+        board.setTurn(pawnType);
+        return board;
+    }
+
+    public BitBoard(List<Pawn> pawnList) {
+        this(0, 0, 0);
+        pawnList.forEach(pawn -> setPawn(pawn.currentPosition(), pawn));
+    }
+
+    public BitBoard(int black, int white, int kings) {
+        super(Checkerboard.HEIGHT, Checkerboard.WIDTH);
+        assert (black & white) == 0;
+        assert (kings & ~(black | white)) == 0;
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        this.material = Evaluation.material(black, white, kings);
+        setHash(Zobrist.hash(this));
+    }
+
+    private BitBoard(BitBoard board) {
+        super(board.getHeight(), board.getWidth());
+        this.black = board.black;
+        this.white = board.white;
+        this.kings = board.kings;
+        this.material = board.material;
+        setTurn(board.getTurn());
+        setHash(board.hash());
+    }
+
+    public int black() {
+        return black;
+    }
+
+    public int white() {
+        return white;
+    }
+
+    public int kings() {
+        return kings;
+    }
+
+    public int occupied() {
+        return black | white;
+    }
+
+    public int pawns(PawnType type) {
+        return type == PawnType.BLACK ? black : white;
+    }
+
+    /**
+     * @return sum of {@link Evaluation#value(PawnType, boolean, int)} of all pawns
+     */
+    public int material() {
+        return material;
+    }
+
+    @Override
+    public boolean isEmpty(int y, int x) {
+        int square = Squares.index(y, x);
+        return square == Squares.NONE || (occupied() & Squares.bit(square)) == 0;
+    }
+
+    @Override
+    protected BitBoard putPawn(int y, int x, Pawn pawn) {
+        int square = Squares.index(y, x);
+        if (square == Squares.NONE) {
+            if (pawn != null) {
+                throw new IllegalArgumentException(String.format("(%d, %d) is not a playable square", x, y));
+            }
+            return this;
+        }
+
+        int bit = Squares.bit(square);
+        if ((occupied() & bit) != 0) {
+            material -= Evaluation.value((black & bit) != 0 ? PawnType.BLACK : PawnType.WHITE, (kings & bit) != 0, square);
+        }
+        black &= ~bit;
+        white &= ~bit;
+        kings &= ~bit;
+        if (pawn != null) {
+            material += Evaluation.value(pawn.getType(), pawn.isKing(), square);
+            if (pawn.getType() == PawnType.BLACK) {
+                black |= bit;
+            } else {
+                white |= bit;
+            }
+            if (pawn.isKing()) {
+                kings |= bit;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected long keyAt(int y, int x) {
+        int bit = Squares.bit(Squares.index(y, x));
+        if ((occupied() & bit) == 0) {
+            return 0L;
+        }
+        return Zobrist.key((black & bit) != 0 ? PawnType.BLACK : PawnType.WHITE, (kings & bit) != 0, Squares.index(y, x));
+    }
+
+    @Override
+    public PawnType typeAt(int y, int x) {
+        int square = Squares.index(y, x);
+        if (square == Squares.NONE) {
+            return null;
+        }
+        int bit = Squares.bit(square);
+        return (black & bit) != 0 ? PawnType.BLACK : (white & bit) != 0 ? PawnType.WHITE : null;
+    }
+
+    @Override
+    public Pawn getPawn(int y, int x) {
+        int square = Squares.index(y, x);
+        if (square == Squares.NONE || (occupied() & Squares.bit(square)) == 0) {
+            return null;
+        }
+        return createPawn(square);
+    }
+
+    @Override
+    public List<Pawn> pawnsAsList() {
+        List<Pawn> pawns = new ArrayList<>(Integer.bitCount(occupied()));
+        for (int mask = occupied(); mask != 0; mask &= mask - 1) {
+            pawns.add(createPawn(Integer.numberOfTrailingZeros(mask)));
+        }
+        return pawns;
+    }
+
+    @Override
+    public BitBoard makeMove(long move) {
+        int from = Squares.bit(BitMove.from(move));
+        int to = Squares.bit(BitMove.to(move));
+        int captured = BitMove.captured(move);
+        push();
+
+        PawnType pawnType = (black & from) != 0 ? PawnType.BLACK : PawnType.WHITE;
+        PawnType opponent = pawnType.negate();
+
+        long hash = hash();
+        for (int mask = captured; mask != 0; mask &= mask - 1) {
+            int square = Integer.numberOfTrailingZeros(mask);
+            boolean capturedKing = (kings & Squares.bit(square)) != 0;
+            hash ^= Zobrist.key(opponent, capturedKing, square);
+            material -= Evaluation.value(opponent, capturedKing, square);
+        }
+
+        boolean king = (kings & from) != 0;
+        boolean promotion = !king && (to & Squares.lastRow(pawnType)) != 0;
+        hash ^= Zobrist.key(pawnType, king, BitMove.from(move)) ^ Zobrist.key(pawnType, king || promotion, BitMove.to(move));
+        material += Evaluation.value(pawnType, king || promotion, BitMove.to(move)) - Evaluation.value(pawnType, king, BitMove.from(move));
+
+        if (pawnType == PawnType.BLACK) { //chain of beatings may end on the square where it started
+            black = black & ~from | to;
+            white &= ~captured;
+        } else {
+            white = white & ~from | to;
+            black &= ~captured;
+        }
+        kings &= ~captured;
+        if (king) {
+            kings = kings & ~from | to;
+        } else if (promotion) {
+            kings |= to;
+        }
+
+        setHash(hash);
+        setTurn(getTurn().negate());
+        return this;
+    }
+
+    @Override
+    public BitBoard unmakeMove(long move) {
+        int from = Squares.bit(BitMove.from(move));
+        int to = Squares.bit(BitMove.to(move));
+        int captured = BitMove.captured(move);
+
+        if ((black & to) != 0) {
+            black = black & ~to | from;
+            white |= captured;
+        } else {
+            white = white & ~to | from;
+            black |= captured;
+        }
+        ply--;
+        kings = kingsHistory[ply];
+        material = materialHistory[ply];
+        setTurn(getTurn().negate());
+        setHash(hashHistory[ply]);
+        return this;
+    }
+
+    public PawnBoard toPawnBoard() {
+        return new PawnBoard(getHeight(), getWidth(), pawnsAsList());
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int row = 0; row < getHeight(); row++) {
+            for (int column = 0; column < getWidth(); column++) {
+                int square = Squares.index(row, column);
+                if (square == Squares.NONE) {
+                    stringBuilder.append(' ');
+                } else if ((black & Squares.bit(square)) != 0) {
+                    stringBuilder.append((kings & Squares.bit(square)) != 0 ? 'B' : 'b');
+                } else if ((white & Squares.bit(square)) != 0) {
+                    stringBuilder.append((kings & Squares.bit(square)) != 0 ? 'W' : 'w');
+                } else {
+                    stringBuilder.append('/');
+                }
+            }
+            stringBuilder.append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    private void push() {
+        if (kingsHistory == null) {
+            kingsHistory = new int[Checkerboard.WIDTH * Checkerboard.HEIGHT];
+            hashHistory = new long[kingsHistory.length];
+            materialHistory = new int[kingsHistory.length];
+        } else if (ply == kingsHistory.length) {
+            kingsHistory = Arrays.copyOf(kingsHistory, ply * 2);
+            hashHistory = Arrays.copyOf(hashHistory, ply * 2);
+            materialHistory = Arrays.copyOf(materialHistory, ply * 2);
+        }
+        kingsHistory[ply] = kings;
+        hashHistory[ply] = hash();
+        materialHistory[ply] = material;
+        ply++;
+    }
+
+    private Pawn createPawn(int square) {
+        int bit = Squares.bit(square);
+        PawnType type = (black & bit) != 0 ? PawnType.BLACK : PawnType.WHITE;
+        return new PawnImpl(type, Squares.position(square), (kings & bit) != 0, null);
+    }
+
+}
@@ -0,0 +1,53 @@
+package pl.games.checkers.model;
+
+/**
+ * Move encoded in a single long, so moves can be generated and kept by the search without allocations.
+ * Bits 0-4 hold the square pawn is moved from, bits 5-9 the square it is moved to and the upper 32 bits
+ * the mask of beaten pawns (squares are numbered by {@link Squares}).
+ */
+public final class BitMove {
+
+    public static final long NONE = 0L;
+
+    private static final int SQUARE_BITS = 5;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int CAPTURED_SHIFT = 32;
+
+    private BitMove() {
+    }
+
+    public static long of(int from, int to, int captured) {
+        return ((long) captured << CAPTURED_SHIFT) | (to << SQUARE_BITS) | from;
+    }
+
+    public static int from(long move) {
+        return (int) move & SQUARE_MASK;
+    }
+
+    public static int to(long move) {
+        return (int) (move >>> SQUARE_BITS) & SQUARE_MASK;
+    }
+
+    public static int captured(long move) {
+        return (int) (move >>> CAPTURED_SHIFT);
+    }
+
+    public static boolean hasBeating(long move) {
+        return captured(move) != 0;
+    }
+
+    /**
+     * @return move in numeric notation: squares numbered from 1, "from-to" for a walk and "fromxto" for a beating
+     */
+    public static String notation(long move) {
+        return (from(move) + 1) + (hasBeating(move) ? "x" : "-") + (to(move) + 1);
+    }
+
+    public static String toString(long move) {
+        return String.format("(%d, %d) -> (%d, %d) x%d",
+                Squares.column(from(move)), Squares.row(from(move)),
+                Squares.column(to(move)), Squares.row(to(move)),
+                Integer.bitCount(captured(move)));
+    }
+
+}
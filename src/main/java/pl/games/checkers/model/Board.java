@@ -1,17 +1,23 @@
 package pl.games.checkers.model;
 
 import pl.games.checkers.Rules;
+import pl.games.checkers.ai.EngineExecutor;
 import pl.games.checkers.ai.GameTree;
-import pl.games.checkers.ai.algorithm.Minimax;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.algorithm.AlphaBeta;
+import pl.games.checkers.ai.algorithm.LazySmp;
 import pl.games.checkers.ai.algorithm.NextMove;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Board represents checkerboard with pawns and provides basic operations on pawns.
@@ -19,10 +25,13 @@ import java.util.stream.Stream;
  */
 public abstract class Board<T extends Pawn> {
 
-    public static final int DEEPNESS = 6;
+    public static final Duration THINKING_TIME = Duration.ofMillis(1500); //time of AI reply
     private final int width;
     private final int height;
-    private final NextMove algorithm = new Minimax(); //new SimplyBest();
+    private NextMove search; //keeps transposition table between moves, so it is created only for board which is played
+    private Deque<Undo<T>> undoMoves;
+    private PawnType turn = PawnType.WHITE;
+    private long hash;
 
     public Board(int height, int width) {
         this.height = height;
@@ -41,7 +50,18 @@ public abstract class Board<T extends Pawn> {
         return setPawn(position.row(), position.column(), pawn);
     }
 
-    public abstract Board setPawn(int y, int x, T pawn);
+    /**
+     * Sets pawn on the square and updates {@link #hash()}.
+     */
+    public Board setPawn(int y, int x, T pawn) {
+        int square = Squares.index(y, x);
+        if (square != Squares.NONE) {
+            hash ^= keyAt(y, x) ^ Zobrist.key(pawn, square);
+        }
+        return putPawn(y, x, pawn);
+    }
+
+    protected abstract Board putPawn(int y, int x, T pawn);
 
     public T getPawn(Position position) {
         return getPawn(position.row(), position.column());
@@ -49,6 +69,14 @@ public abstract class Board<T extends Pawn> {
 
     public abstract T getPawn(int y, int x);
 
+    /**
+     * @return type of pawn on the square or null if the square is empty
+     */
+    public PawnType typeAt(int y, int x) {
+        T pawn = getPawn(y, x);
+        return pawn == null ? null : pawn.getType();
+    }
+
     public int getWidth() {
         return width;
     }
@@ -57,6 +85,34 @@ public abstract class Board<T extends Pawn> {
         return height;
     }
 
+    public PawnType getTurn() {
+        return turn;
+    }
+
+    public Board setTurn(PawnType turn) {
+        hash ^= Zobrist.turn(this.turn) ^ Zobrist.turn(turn);
+        this.turn = turn;
+        return this;
+    }
+
+    /**
+     * @return Zobrist hash of pawns and of the pawn type to move, kept up to date by every change of the board
+     */
+    public long hash() {
+        return hash;
+    }
+
+    protected void setHash(long hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * @return Zobrist key of pawn on playable square
+     */
+    protected long keyAt(int y, int x) {
+        return Zobrist.key(getPawn(y, x), Squares.index(y, x));
+    }
+
     public Board removePawn(Position currentPosition) {
         return setPawn(currentPosition, null);
     }
@@ -79,56 +135,146 @@ public abstract class Board<T extends Pawn> {
         return this;
     }
 
+    /**
+     * Promotes pawn and stores it back, as board may keep a detached copy of the pawn.
+     */
+    public Board setKing(T pawn) {
+        Position position = pawn.currentPosition();
+        setPawn(position, null);
+        pawn.setKing();
+        return setPawn(position, pawn);
+    }
+
+    /**
+     * Executes move encoded by {@link BitMove} without validation, so it can be reverted by {@link #unmakeMove(long)}.
+     * Moved pawn is replaced by its copy, so pawns held by a caller are not changed.
+     */
+    public Board makeMove(long move) {
+        Position from = Squares.position(BitMove.from(move));
+        Position to = Squares.position(BitMove.to(move));
+        T pawn = getPawn(from);
+
+        List<T> beaten = new ArrayList<>();
+        for (int captured = BitMove.captured(move); captured != 0; captured &= captured - 1) {
+            T victim = getPawn(Squares.position(Integer.numberOfTrailingZeros(captured)));
+            beaten.add(victim);
+            setPawn(victim.currentPosition(), null);
+        }
+        if (undoMoves == null) {
+            undoMoves = new ArrayDeque<>();
+        }
+        undoMoves.push(new Undo<>(pawn, beaten));
+
+        T moved = moved(pawn, to);
+        setPawn(from, null);
+        setPawn(to, moved);
+        if (!moved.isKing() && (Squares.lastRow(moved.getType()) & Squares.bit(BitMove.to(move))) != 0) {
+            setKing(moved);
+        }
+        return setTurn(turn.negate());
+    }
+
+    /**
+     * @return copy of the pawn at the position it is moved to by {@link #makeMove(long)}
+     */
+    protected T moved(T pawn, Position to) {
+        T moved = (T) pawn.copy();
+        moved.move(to);
+        return moved;
+    }
+
+    /**
+     * Reverts the latest move executed by {@link #makeMove(long)}, including beaten pawns and promotion.
+     */
+    public Board unmakeMove(long move) {
+        Undo<T> undo = undoMoves.pop();
+        setPawn(Squares.position(BitMove.to(move)), null);
+        setPawn(undo.pawn.currentPosition(), undo.pawn);
+        undo.beaten.forEach(victim -> setPawn(victim.currentPosition(), victim));
+        return setTurn(turn.negate());
+    }
+
+    /**
+     * Executes move of the pawn and, if it is a valid move of user, waits for reply of AI and executes it too.
+     * See {@link pl.games.checkers.ai.Engine} for AI which does not block the caller.
+     */
     public Board<T> move(T pawn, Position nextPosition, boolean isAi) {
-        move(this, pawn, nextPosition, isAi);
+        if (execute(pawn, nextPosition) && !isAi) { // AI turn if user made a move
+            GameTree gameTree = new GameTree(this, pawn.getType().negate(), AlphaBeta.MAX_DEPTH);
+            if (search == null) {
+                search = new LazySmp(EngineExecutor.getInstance().getThreads(), THINKING_TIME);
+            }
+            Pawn p = search.nextMove(gameTree);
+            if (p != null) {
+                execute(p);
+            }
+        }
         return this;
     }
 
     /**
-     * @return return true if move was executed by AI, false otherwise
+     * Executes move found by AI, e.g. on another board: the move of pawn standing on the same position.
+     * @return false if the move is not valid on this board
+     */
+    public boolean execute(Pawn aiMove) {
+        T pawn = getPawn(aiMove.currentPosition());
+        if (pawn == null) {
+            return false;
+        }
+        pawn.setMove(aiMove.getMove()); //keeps the chain of beatings chosen by search
+        return execute(pawn, aiMove.nextPosition());
+    }
+
+    /**
+     * Executes move of the pawn to the next position. If it is a beating, the whole chain of beatings is executed:
+     * the chain of AI move is kept by pawn's {@link Move}, the chain of user move is chosen as the best one.
+     * Move is valid only if it is legal according to {@link MoveGenerator}, so beating is obligatory.
+     * Beatings are recorded by flight recorder as {@link CaptureChainEvent}.
+     * @return false if the move is not valid, then the pawn stays where it was
      */
-    private boolean move(Board board, T pawn, Position nextPosition, boolean isAi) {
-        Move result;
+    public boolean execute(T pawn, Position nextPosition) {
+        CaptureChainEvent event = new CaptureChainEvent();
+        event.begin();
         Position currentPosition = pawn.currentPosition();
-        boolean wasAi = isAi;
+        BitBoard bitBoard = BitBoard.create(this);
+        bitBoard.setTurn(pawn.getType());
+
+        Move result = getPawnMove(pawn, nextPosition);
+        long bitMove = result.type() == MoveType.INVALID ? BitMove.NONE : MoveGenerator.findMove(bitBoard, pawn, nextPosition);
+        if (bitMove == BitMove.NONE) {
+            result = new Move(MoveType.INVALID);
+        }
 
-        result = getPawnMove(pawn, nextPosition);
         switch (result.type()) {
         case INVALID:
-            board.abortPawnMove(pawn);
-            break;
+            abortPawnMove(pawn);
+            return false;
         case MOVE:
-            board.movePawn(pawn, currentPosition, nextPosition);
+            movePawn(pawn, currentPosition, nextPosition);
             break;
         case KILL:
-            board.beatPawn(pawn, result.killedPawn(), currentPosition, nextPosition);
-
-            GameTree gameTree = new GameTree(board, pawn.getType())
-                    .constraint(pawn)
-                    .buildTree();
-            Pawn bestMove = algorithm.nextMove(gameTree);
-            if (bestMove != null && bestMove.hasBeating()) {
-                Pawn p = bestMove;
-                isAi = move(board, this.getPawn(p.currentPosition()), p.nextPosition(), isAi);
-            }
+            beatPawn(pawn, (T) result.killedPawn(), currentPosition, nextPosition);
 
+            int[] path = MoveGenerator.path(bitBoard, bitMove);
+            for (int i = 1; i < path.length; i++) { //the rest of the chain
+                int victim = Squares.between(path[i - 1], path[i]) & BitMove.captured(bitMove);
+                beatPawn(pawn, getPawn(Squares.position(Integer.numberOfTrailingZeros(victim))),
+                        Squares.position(path[i - 1]), Squares.position(path[i]));
+            }
+            if (event.shouldCommit()) {
+                event.pawnType = pawn.getType().name();
+                event.beaten = Integer.bitCount(BitMove.captured(bitMove));
+                event.king = pawn.isKing();
+                event.commit();
+            }
             break;
         }
 
         if (isNewKing().test(pawn)) {
-            pawn.setKing();
+            setKing(pawn);
         }
-
-        if (!isAi && result.type() != MoveType.INVALID) {// AI turn if user made a move
-            GameTree gameTree = new GameTree(board, pawn.getType().negate(), DEEPNESS)
-                    .buildTree();
-            Pawn p = algorithm.nextMove(gameTree);
-            if (p != null && wasAi == isAi) {
-                isAi = move(board, this.getPawn(p.currentPosition()), p.nextPosition(), !isAi);
-            }
-        }
-
-        return isAi;
+        setTurn(pawn.getType().negate());
+        return true;
     }
 
     public List<T> pawnsAsList() {
@@ -154,10 +300,9 @@ public abstract class Board<T extends Pawn> {
     }
 
     private boolean isValidMoveOnBoard(Pawn pawn, Position nextPosition) {
-        return Rules.isOnBoard()
-                .and(Rules.isPositionAllowed())
-                .and(Rules.isDiagonalMove(pawn))
-                .test(nextPosition);
+        int square = Squares.index(nextPosition);
+        return square != Squares.NONE
+                && Squares.direction(Squares.index(pawn.currentPosition()), square) != Squares.NONE;
     }
 
     private boolean isValidMovePawn(Pawn pawn, Position nextPosition) {
@@ -186,22 +331,15 @@ public abstract class Board<T extends Pawn> {
     }
 
     private Move pawnMove(T pawn, Position nextPosition) {
-        return streamPawnMoves(pawn, nextPosition)
-                .filter(Rules.isOpponent(pawn))
-                .findAny()
-                .map(p -> new Move(MoveType.KILL, p))
-                .orElse(new Move(MoveType.MOVE));
-    }
-
-    private Stream<T> streamPawnMoves(T pawn, Position nextPosition) {
-        Position currentPosition = pawn.currentPosition();
-        int hDir = horizontalDirection(currentPosition, nextPosition);
-        int vDir = verticalDirection(currentPosition, nextPosition);
-
-        return Stream.iterate(currentPosition.increment(vDir, hDir), p -> !p.equals(nextPosition), p -> p.increment(vDir, hDir))
-                .limit(width)
-                .map(p -> this.getPawn(p))
-                .filter(Objects::nonNull);
+        int between = Squares.between(Squares.index(pawn.currentPosition()), Squares.index(nextPosition));
+        for (; between != 0; between &= between - 1) {
+            int square = Integer.numberOfTrailingZeros(between);
+            PawnType type = typeAt(Squares.row(square), Squares.column(square));
+            if (type != null && type != pawn.getType()) {
+                return new Move(MoveType.KILL, getPawn(Squares.position(square)));
+            }
+        }
+        return new Move(MoveType.MOVE);
     }
 
     private Predicate<Pawn> isNewKing() {
@@ -215,12 +353,20 @@ public abstract class Board<T extends Pawn> {
         return colDiff;
     }
 
-    private int horizontalDirection(Position currentPosition, Position nextPosition) {
-        return Integer.compare(nextPosition.column(), currentPosition.column());
-    }
-
     private int verticalDirection(Position currentPosition, Position nextPosition) {
         return Integer.compare(nextPosition.row(), currentPosition.row());
     }
 
+    private static class Undo<T extends Pawn> {
+
+        private final T pawn;
+        private final List<T> beaten;
+
+        private Undo(T pawn, List<T> beaten) {
+            this.pawn = pawn;
+            this.beaten = beaten;
+        }
+
+    }
+
 }
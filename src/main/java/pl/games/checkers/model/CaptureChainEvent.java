@@ -0,0 +1,29 @@
+package pl.games.checkers.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a chain of beatings resolved and executed by {@link Board#execute(Pawn, Position)}.
+ */
+@Name("pl.games.checkers.CaptureChain")
+@Label("Capture Chain")
+@Description("Chain of beatings found for a move and executed on the board")
+@Category({ "Checkers", "Board" })
+@Enabled(false)
+final class CaptureChainEvent extends Event {
+
+    @Label("Pawn Type")
+    String pawnType;
+
+    @Label("Beaten")
+    int beaten;
+
+    @Label("King")
+    boolean king;
+
+}
@@ -4,14 +4,20 @@ public class Move {
 
     private final MoveType type;
     private final Pawn killedPawn;
+    private final long bitMove; //whole move with all beatings, if known
 
     public Move(MoveType type) {
         this(type, null);
     }
 
     public Move(MoveType type, Pawn killedPawn) {
+        this(type, killedPawn, BitMove.NONE);
+    }
+
+    public Move(MoveType type, Pawn killedPawn, long bitMove) {
         this.type = type;
         this.killedPawn = killedPawn;
+        this.bitMove = bitMove;
     }
 
     public MoveType type() {
@@ -22,4 +28,11 @@ public class Move {
         return killedPawn;
     }
 
+    /**
+     * @return whole move as {@link BitMove}, including the chain of beatings, or {@link BitMove#NONE} if not known
+     */
+    public long bitMove() {
+        return bitMove;
+    }
+
 }
@@ -22,6 +22,8 @@ public interface Pawn<T extends Pawn> extends Copier<T> {
 
     Pawn setMove(Move move);
 
+    Move getMove();
+
     boolean hasBeating();
 
     Pawn killedPawn();
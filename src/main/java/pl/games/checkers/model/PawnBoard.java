@@ -12,6 +12,7 @@ public class PawnBoard extends Board<Pawn> {
 
     private PawnBoard(Board pawns) {
         this(pawns.getHeight(), pawns.getWidth(), pawns.pawnsAsList());
+        setTurn(pawns.getTurn());
     }
 
     public PawnBoard(int height, int width, List<Pawn> pawnList) {
@@ -23,7 +24,7 @@ public class PawnBoard extends Board<Pawn> {
     }
 
     @Override
-    public PawnBoard setPawn(int y, int x, Pawn pawn) {
+    protected PawnBoard putPawn(int y, int x, Pawn pawn) {
         pawns[y][x] = pawn;
         return this;
     }
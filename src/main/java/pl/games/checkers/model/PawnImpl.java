@@ -85,6 +85,11 @@ public class PawnImpl implements Pawn {
         return this;
     }
 
+    @Override
+    public Move getMove() {
+        return move;
+    }
+
     @Override
     public boolean hasBeating() {
         return move != null && move.type() == MoveType.KILL;
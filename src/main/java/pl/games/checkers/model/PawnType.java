@@ -1,28 +1,20 @@
 package pl.games.checkers.model;
 
-import javafx.scene.paint.Color;
-
 public enum PawnType {
 
-    BLACK(1, Color.valueOf("#002439")),
-    WHITE(-1, Color.valueOf("#e4eff0"));
+    BLACK(1),
+    WHITE(-1);
 
     final int direction;
-    final Color color;
 
-    PawnType(int direction, Color color) {
+    PawnType(int direction) {
         this.direction = direction;
-        this.color = color;
     }
 
     public int getDirection() {
         return direction;
     }
 
-    public Color getColor() {
-        return color;
-    }
-
     public PawnType negate() {
         return this == BLACK ? WHITE : BLACK;
     }
@@ -78,4 +78,14 @@ public class Position implements Copier<Position> {
 
         return false;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Position && equals((Position) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * y + x;
+    }
 }
@@ -0,0 +1,148 @@
+package pl.games.checkers.model;
+
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.Arrays;
+
+/**
+ * Numbering of the playable (dark) squares of the board, used by bit mask based boards.
+ * Squares are numbered row by row from the top left corner, so square order is the same as board scan order.
+ * Neighbours, jumps, diagonal rays and squares between two squares are computed once into tables,
+ * so rules and move generation do not compute coordinates nor allocate positions.
+ */
+public final class Squares {
+
+    public static final int COUNT = Checkerboard.WIDTH * Checkerboard.HEIGHT / 2;
+    public static final int NONE = -1;
+
+    public static final int DIRECTIONS = 4;
+
+    private static final int PER_ROW = Checkerboard.WIDTH / 2;
+    private static final int[] ROW_STEPS = {-1, -1, 1, 1};
+    private static final int[] COLUMN_STEPS = {-1, 1, -1, 1};
+    private static final int FIRST_ROW = (1 << PER_ROW) - 1;
+    private static final int LAST_ROW = FIRST_ROW << (COUNT - PER_ROW);
+
+    private static final Position[] POSITIONS = new Position[COUNT];
+    private static final int[][] NEIGHBOURS = new int[COUNT][DIRECTIONS];
+    private static final int[][] JUMPS = new int[COUNT][DIRECTIONS];
+    private static final int[][][] RAYS = new int[COUNT][DIRECTIONS][];
+    private static final int[][] BETWEEN = new int[COUNT][COUNT];
+    private static final int[][] DIRECTION = new int[COUNT][COUNT];
+
+    static {
+        for (int square = 0; square < COUNT; square++) {
+            POSITIONS[square] = new Position(row(square), column(square));
+            Arrays.fill(DIRECTION[square], NONE);
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int[] ray = new int[Checkerboard.WIDTH];
+                int length = 0;
+                int between = 0;
+                for (int next = computeNeighbour(square, direction); next != NONE; next = computeNeighbour(next, direction)) {
+                    ray[length++] = next;
+                    BETWEEN[square][next] = between;
+                    DIRECTION[square][next] = direction;
+                    between |= bit(next);
+                }
+                RAYS[square][direction] = Arrays.copyOf(ray, length);
+                NEIGHBOURS[square][direction] = length > 0 ? ray[0] : NONE;
+                JUMPS[square][direction] = length > 1 ? ray[1] : NONE;
+            }
+        }
+    }
+
+    private Squares() {
+    }
+
+    /**
+     * @return number of square or {@link #NONE} if position is out of board or is not playable
+     */
+    public static int index(int row, int column) {
+        if (row < 0 || row >= Checkerboard.HEIGHT || column < 0 || column >= Checkerboard.WIDTH) {
+            return NONE;
+        }
+        if ((row + column) % 2 == 0) {
+            return NONE;
+        }
+        return row * PER_ROW + column / 2;
+    }
+
+    public static int index(Position position) {
+        return index(position.row(), position.column());
+    }
+
+    public static int row(int square) {
+        return square / PER_ROW;
+    }
+
+    public static int column(int square) {
+        int row = row(square);
+        return 2 * (square % PER_ROW) + (row % 2 == 0 ? 1 : 0);
+    }
+
+    /**
+     * @return shared position of the square, positions are immutable
+     */
+    public static Position position(int square) {
+        return POSITIONS[square];
+    }
+
+    public static int bit(int square) {
+        return 1 << square;
+    }
+
+    /**
+     * @param direction one of {@link #DIRECTIONS} diagonal directions
+     * @return next square along the diagonal or {@link #NONE} if there is no such square
+     */
+    public static int neighbour(int square, int direction) {
+        return NEIGHBOURS[square][direction];
+    }
+
+    /**
+     * @return square two steps along the diagonal, where pawn lands after beating the neighbour, or {@link #NONE}
+     */
+    public static int jump(int square, int direction) {
+        return JUMPS[square][direction];
+    }
+
+    /**
+     * @return squares along the diagonal from the nearest one to the edge of the board, excluding the square itself
+     */
+    public static int[] ray(int square, int direction) {
+        return RAYS[square][direction];
+    }
+
+    /**
+     * @return mask of squares strictly between two squares on one diagonal, 0 if they are not on one diagonal
+     */
+    public static int between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return direction from one square to the other or {@link #NONE} if they are not on one diagonal
+     */
+    public static int direction(int from, int to) {
+        return DIRECTION[from][to];
+    }
+
+    /**
+     * @return vertical component of the direction, comparable with {@link PawnType#getDirection()}
+     */
+    public static int rowStep(int direction) {
+        return ROW_STEPS[direction];
+    }
+
+    /**
+     * @return mask of squares where pawns of given type are promoted
+     */
+    public static int lastRow(PawnType pawnType) {
+        return pawnType == PawnType.BLACK ? LAST_ROW : FIRST_ROW;
+    }
+
+    private static int computeNeighbour(int square, int direction) {
+        return index(row(square) + ROW_STEPS[direction], column(square) + COLUMN_STEPS[direction]);
+    }
+
+}
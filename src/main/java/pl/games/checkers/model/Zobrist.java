@@ -0,0 +1,58 @@
+package pl.games.checkers.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Keys of Zobrist hashing. Hash of a board is xor of keys of all pawns (type, king flag, square)
+ * and of the pawn type to move, so it can be updated incrementally when a pawn is set, moved, beaten or promoted.
+ * Keys are generated from a fixed seed, so hashes are the same in each run and can be stored in files.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x436865636b657273L;
+    private static final long[][] KEYS = new long[4][Squares.COUNT];
+    private static final long BLACK_TURN;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : KEYS) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TURN = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long key(PawnType pawnType, boolean king, int square) {
+        return KEYS[pawnType.ordinal() * 2 + (king ? 1 : 0)][square];
+    }
+
+    /**
+     * @return key of the pawn on the square or 0 if there is no pawn
+     */
+    public static long key(Pawn pawn, int square) {
+        return pawn == null ? 0L : key(pawn.getType(), pawn.isKing(), square);
+    }
+
+    public static long turn(PawnType pawnType) {
+        return pawnType == PawnType.BLACK ? BLACK_TURN : 0L;
+    }
+
+    /**
+     * Computes hash from scratch, which should always be equal to {@link Board#hash()}.
+     */
+    public static long hash(Board<? extends Pawn> board) {
+        long hash = turn(board.getTurn());
+        for (Pawn pawn : board.pawnsAsList()) {
+            int square = Squares.index(pawn.currentPosition());
+            if (square != Squares.NONE) {
+                hash ^= key(pawn, square);
+            }
+        }
+        return hash;
+    }
+
+}
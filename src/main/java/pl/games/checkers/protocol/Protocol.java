@@ -0,0 +1,270 @@
+package pl.games.checkers.protocol;
+
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.SearchMonitor;
+import pl.games.checkers.ai.algorithm.AlphaBeta;
+import pl.games.checkers.ai.algorithm.IterativeDeepening;
+import pl.games.checkers.ai.algorithm.SearchProgress;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Text protocol of the engine in the spirit of UCI, so AI can be run without UI, e.g. in batch jobs and tournaments.
+ * Commands are read line by line, replies are written as lines. Squares are numbered from 1 in the order of {@link Squares},
+ * moves are written in notation of {@link BitMove#notation(long)}.
+ * <ul>
+ * <li>{@code checkers}: replies {@code id name ...} and {@code checkersok}</li>
+ * <li>{@code isready}: replies {@code readyok}, also while searching</li>
+ * <li>{@code newgame}: forgets results of previous searches</li>
+ * <li>{@code position startpos|fen <fen> [moves <move>...]}: sets the position, the start one has white to move;
+ * fen is the pawn type to move and squares of both pawn types with kings marked by K, e.g. {@code W:W18,K30:B1,2}</li>
+ * <li>{@code go [depth <plies>] [movetime <ms>] [nodes <count>] [infinite]}: searches in the background, without limits
+ * for {@link Board#THINKING_TIME}; reports {@code info depth <plies> score <score> nodes <count> nps <count> time <ms> pv <move>}
+ * after each completed iteration and {@code bestmove <move>} or {@code bestmove none} at the end</li>
+ * <li>{@code stop}: stops the search, which reports the best move of the deepest completed iteration</li>
+ * <li>{@code board}: prints the position and its fen</li>
+ * <li>{@code quit}</li>
+ * </ul>
+ * Wrong commands are reported by {@code info string} and ignored. Search runs in one thread of {@link EngineExecutor},
+ * its statistics are reported by {@code info string} and passed to {@link SearchMonitor}.
+ */
+public class Protocol {
+
+	public static final String NAME = "Checkers";
+
+	private static final Duration UNLIMITED = Duration.ofDays(365);
+
+	private final PrintStream out;
+	private final EngineExecutor executor;
+	private AlphaBeta alphaBeta = new AlphaBeta(); //keeps transposition table between searches of one game
+	private BitBoard board = BitBoard.initial(PawnType.WHITE);
+	private CompletableFuture<Void> search = CompletableFuture.completedFuture(null);
+	private AtomicBoolean stopped = new AtomicBoolean();
+
+	public Protocol(PrintStream out, EngineExecutor executor) {
+		this.out = out;
+		this.executor = executor;
+	}
+
+	/**
+	 * Executes commands until quit or the end of input, then waits for the search to stop.
+	 */
+	public void run(BufferedReader in) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null && execute(line)) {
+		}
+		stop();
+	}
+
+	/**
+	 * @return false if the command is quit
+	 */
+	public boolean execute(String line) {
+		String[] tokens = line.trim().split("\\s+");
+		try {
+			switch (tokens[0]) {
+			case "":
+				break;
+			case "checkers":
+				send("id name " + NAME);
+				send("checkersok");
+				break;
+			case "isready":
+				send("readyok");
+				break;
+			case "newgame":
+				stop();
+				alphaBeta = new AlphaBeta();
+				break;
+			case "position":
+				stop();
+				board = position(tokens);
+				break;
+			case "go":
+				stop();
+				go(tokens);
+				break;
+			case "stop":
+				stop();
+				break;
+			case "board":
+				send(board.toString().stripTrailing());
+				send("fen " + fen(board));
+				break;
+			case "quit":
+				return false;
+			default:
+				send("info string unknown command " + tokens[0]);
+			}
+		} catch (IllegalArgumentException e) {
+			send("info string " + e.getMessage());
+		}
+		return true;
+	}
+
+	/**
+	 * Stops the search and waits until it reports the best move.
+	 */
+	public void stop() {
+		stopped.set(true);
+		search.join();
+	}
+
+	/**
+	 * @return position of the fen, e.g. {@code W:W18,K30:B1,2}
+	 * @throws IllegalArgumentException if it is not a valid fen
+	 */
+	public static BitBoard parseFen(String fen) {
+		String[] parts = fen.split(":");
+		int[] masks = new int[3]; //black, white, kings
+		for (int i = 1; i < parts.length; i++) {
+			int side = pawnType(parts[i].substring(0, Math.min(1, parts[i].length()))) == PawnType.BLACK ? 0 : 1;
+			for (String square : parts[i].substring(1).split(",")) {
+				if (square.isEmpty()) {
+					continue;
+				}
+				boolean king = square.startsWith("K");
+				int bit = Squares.bit(square(king ? square.substring(1) : square));
+				if (((masks[0] | masks[1]) & bit) != 0) {
+					throw new IllegalArgumentException("Square " + square + " is taken twice in fen " + fen);
+				}
+				masks[side] |= bit;
+				masks[2] |= king ? bit : 0;
+			}
+		}
+		BitBoard board = new BitBoard(masks[0], masks[1], masks[2]);
+		board.setTurn(pawnType(parts[0]));
+		return board;
+	}
+
+	public static String fen(BitBoard board) {
+		return String.format("%s:W%s:B%s", board.getTurn() == PawnType.WHITE ? "W" : "B",
+				squares(board.white(), board.kings()), squares(board.black(), board.kings()));
+	}
+
+	private BitBoard position(String[] tokens) {
+		int moves = Arrays.asList(tokens).indexOf("moves");
+		BitBoard position;
+		if (tokens.length > 1 && "startpos".equals(tokens[1])) {
+			position = BitBoard.initial(PawnType.WHITE);
+		} else if (tokens.length > 2 && "fen".equals(tokens[1])) {
+			position = parseFen(tokens[2]);
+		} else {
+			throw new IllegalArgumentException("position startpos or fen expected");
+		}
+		for (int i = moves + 1; moves > 0 && i < tokens.length; i++) {
+			long move = MoveGenerator.parse(position, tokens[i]);
+			if (move == BitMove.NONE) {
+				throw new IllegalArgumentException("illegal move " + tokens[i]);
+			}
+			position.makeMove(move);
+		}
+		return position.copy(); //without history of moves
+	}
+
+	private void go(String[] tokens) {
+		int depth = AlphaBeta.MAX_DEPTH;
+		long nodes = Long.MAX_VALUE;
+		Duration time = null;
+		boolean limited = false;
+		for (int i = 1; i < tokens.length; i++) {
+			switch (tokens[i]) {
+			case "depth":
+				depth = Integer.parseInt(value(tokens, ++i));
+				limited = true;
+				break;
+			case "nodes":
+				nodes = Long.parseLong(value(tokens, ++i));
+				limited = true;
+				break;
+			case "movetime":
+				time = Duration.ofMillis(Long.parseLong(value(tokens, ++i)));
+				break;
+			case "infinite":
+				limited = true;
+				break;
+			default:
+				throw new IllegalArgumentException("unknown limit " + tokens[i]);
+			}
+		}
+		if (time == null) {
+			time = limited ? UNLIMITED : Board.THINKING_TIME;
+		}
+
+		AtomicBoolean cancelled = new AtomicBoolean();
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(alphaBeta, time, nodes)
+				.cancellation(cancelled::get)
+				.progress(progress -> send(info(progress)));
+		BitBoard position = board.copy();
+		int maxDepth = depth;
+		stopped = cancelled;
+		search = executor.submit(() -> {
+			long move = iterativeDeepening.search(position, maxDepth);
+			SearchMonitor.getInstance().accept(iterativeDeepening.getStatistics());
+			send("info string " + iterativeDeepening.getStatistics());
+			send("bestmove " + (move == BitMove.NONE ? "none" : BitMove.notation(move)));
+			return null;
+		}, () -> cancelled.set(true));
+	}
+
+	private synchronized void send(String line) {
+		out.println(line);
+		out.flush();
+	}
+
+	private static String info(SearchProgress progress) {
+		long millis = progress.getElapsed().toMillis();
+		return String.format("info depth %d score %d nodes %d nps %d time %d pv %s", progress.getDepth(), progress.getScore(),
+				progress.getNodes(), progress.getNodes() * 1000 / Math.max(1, millis), millis, BitMove.notation(progress.getBestMove()));
+	}
+
+	private static String value(String[] tokens, int i) {
+		if (i >= tokens.length) {
+			throw new IllegalArgumentException("value of " + tokens[i - 1] + " expected");
+		}
+		return tokens[i];
+	}
+
+	private static PawnType pawnType(String letter) {
+		switch (letter) {
+		case "W":
+			return PawnType.WHITE;
+		case "B":
+			return PawnType.BLACK;
+		default:
+			throw new IllegalArgumentException("W or B expected instead of " + letter);
+		}
+	}
+
+	private static int square(String number) {
+		int square = Integer.parseInt(number) - 1;
+		if (square < 0 || square >= Squares.COUNT) {
+			throw new IllegalArgumentException("Square " + number + " is not on the board");
+		}
+		return square;
+	}
+
+	private static String squares(int pawns, int kings) {
+		List<String> squares = new ArrayList<>();
+		for (int mask = pawns; mask != 0; mask &= mask - 1) {
+			int square = Integer.numberOfTrailingZeros(mask);
+			squares.add(((kings & Squares.bit(square)) != 0 ? "K" : "") + (square + 1));
+		}
+		return String.join(",", squares);
+	}
+
+}
@@ -1,5 +1,6 @@
 package pl.games.checkers.ui;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Parent;
 import javafx.scene.layout.Background;
@@ -7,17 +8,23 @@ import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.games.checkers.ai.Engine;
 import pl.games.checkers.model.Position;
 import pl.games.checkers.model.*;
 
 public class Checkerboard {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkerboard.class);
+
     public static final int TILE_SIZE_X = 100;
     public static final int TILE_SIZE_Y = 80;
     public static final int WIDTH = 8;
     public static final int HEIGHT = 8;
 
     private final Board board;
+    private Engine engine; //created with the first move
 
     public Checkerboard() {
         board = new TileBoard(HEIGHT, WIDTH, (b, p) -> e -> move(b, p, p.nextPosition()));
@@ -45,8 +52,29 @@ public class Checkerboard {
         return board;
     }
 
+    /**
+     * Executes move of user and requests reply of AI, which is executed on the application thread when it is found.
+     * Then AI ponders until the next move of user. Input is ignored while AI thinks.
+     */
     private void move(Board board, Pawn pawn, Position nextPosition) {
-        board.move(pawn, nextPosition, false);
+        if (engine == null) {
+            engine = new Engine(Board.THINKING_TIME);
+        }
+        if (engine.isThinking() || !board.execute(pawn, nextPosition)) {
+            pawn.abortMove();
+            return;
+        }
+
+        engine.nextMove(board, pawn.getType().negate(), progress -> LOGGER.debug("AI: {}", progress))
+                .thenAccept(aiMove -> Platform.runLater(() -> {
+                    if (aiMove != null && board.execute(aiMove)) {
+                        engine.ponder(board, aiMove.getType());
+                    }
+                }))
+                .exceptionally(e -> {
+                    LOGGER.error("AI failed", e);
+                    return null;
+                });
     }
 
 }
@@ -17,6 +17,8 @@ public class PawnFigure extends StackPane implements Pawn {
     private static final double RADIUS_X = Checkerboard.TILE_SIZE_X * 0.35;
     private static final double RADIUS_Y = Checkerboard.TILE_SIZE_Y * 0.35;
     private static final double PAWN_SIZE_Y = Checkerboard.TILE_SIZE_Y * 0.1;
+    private static final Color BLACK_COLOR = Color.valueOf("#002439");
+    private static final Color WHITE_COLOR = Color.valueOf("#e4eff0");
 
     private final Pawn reference;
 
@@ -36,8 +38,8 @@ public class PawnFigure extends StackPane implements Pawn {
         move(position);
         setType(type);
 
-        Shape firstRoundel = createRoundel(type.getColor(), PAWN_SIZE_Y);
-        Shape secondRoundel = createRoundel(type.getColor(), 0);
+        Shape firstRoundel = createRoundel(colorOf(type), PAWN_SIZE_Y);
+        Shape secondRoundel = createRoundel(colorOf(type), 0);
         getChildren().addAll(firstRoundel, secondRoundel);
         if (isKing) {
             setKing();
@@ -100,7 +102,7 @@ public class PawnFigure extends StackPane implements Pawn {
     @Override
     public void setKing() {
         reference.setKing();
-        Shape thirdRoundel = createRoundel(getType().getColor(), -PAWN_SIZE_Y);
+        Shape thirdRoundel = createRoundel(colorOf(getType()), -PAWN_SIZE_Y);
         getChildren().add(thirdRoundel);
     }
 
@@ -119,6 +121,11 @@ public class PawnFigure extends StackPane implements Pawn {
         return this;
     }
 
+    @Override
+    public Move getMove() {
+        return reference.getMove();
+    }
+
     @Override
     public boolean hasBeating() {
         return reference.hasBeating();
@@ -150,4 +157,8 @@ public class PawnFigure extends StackPane implements Pawn {
         return roundel;
     }
 
+    private static Color colorOf(PawnType type) {
+        return type == PawnType.BLACK ? BLACK_COLOR : WHITE_COLOR;
+    }
+
 }
@@ -1,7 +1,6 @@
 package pl.games.checkers.ui;
 
 import javafx.scene.shape.Rectangle;
-import pl.games.checkers.model.TileType;
 
 public class Tile extends Rectangle {
 
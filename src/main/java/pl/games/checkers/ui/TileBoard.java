@@ -34,13 +34,10 @@ public class TileBoard extends Board<PawnFigure> {
                 Tile tile = new Tile(row, column);
                 this.setTile(row, column, tile);
                 if (tile.isAllowed()) {
-                    tile.setPawn(createPawn(row, column));
+                    setPawn(row, column, createPawn(row, column));
                 }
 
                 tileGroup.getChildren().add(tile);
-                if (tile.getPawn() != null) {
-                    pawnGroup.getChildren().add(tile.getPawn());
-                }
             }
         }
 
@@ -57,16 +54,28 @@ public class TileBoard extends Board<PawnFigure> {
         }
     }
 
+    /**
+     * Figures shown by the pawn group are the ones standing on tiles, so a removed pawn disappears.
+     */
     @Override
-    public TileBoard setPawn(int y, int x, PawnFigure pawn) {
+    protected TileBoard putPawn(int y, int x, PawnFigure pawn) {
+        PawnFigure current = tiles[y][x].getPawn();
         tiles[y][x].setPawn(pawn);
+        if (current != null) {
+            pawnGroup.getChildren().remove(current);
+        }
+        if (pawn != null) {
+            pawnGroup.getChildren().add(pawn);
+        }
         return this;
     }
 
+    /**
+     * Copy of a figure is not a figure, so pawn moved by {@link #makeMove(long)} is a new figure.
+     */
     @Override
-    public Board removePawn(Position currentPosition) {
-        pawnGroup.getChildren().remove(getPawn(currentPosition));
-        return super.setPawn(currentPosition, null);
+    protected PawnFigure moved(PawnFigure pawn, Position to) {
+        return createPawn(pawn.getType(), to.row(), to.column(), pawn.isKing());
     }
 
     public List<Group> getGroups() {
@@ -134,7 +143,11 @@ public class TileBoard extends Board<PawnFigure> {
     }
 
     private PawnFigure createPawn(PawnType type, int row, int column) {
-        PawnFigure pawn = new PawnFigure(type, row, column);
+        return createPawn(type, row, column, false);
+    }
+
+    private PawnFigure createPawn(PawnType type, int row, int column, boolean isKing) {
+        PawnFigure pawn = new PawnFigure(type, row, column, isKing);
 
         pawn.setOnMouseReleased(mouseRelease.apply(this, pawn));
 
@@ -1,4 +1,4 @@
-package pl.games.checkers.model;
+package pl.games.checkers.ui;
 
 import javafx.scene.paint.Color;
 
@@ -0,0 +1,68 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.algorithm.IterativeDeepening;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.PawnType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EngineExecutorTest {
+
+	@Test
+	public void testNestedTasksDoNotBlock() throws Exception {
+		EngineExecutor executor = new EngineExecutor(1);
+		List<Callable<Integer>> inner = List.of(() -> 1, () -> 2);
+
+		CompletableFuture<Integer> future = executor.submit(
+				() -> executor.invokeAll(inner).stream().mapToInt(Integer::intValue).sum(), () -> {});
+
+		Assertions.assertEquals(3, future.get(5, TimeUnit.SECONDS));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testCancelStopsSearch() throws Exception {
+		EngineExecutor executor = new EngineExecutor(1);
+		AtomicBoolean cancelled = new AtomicBoolean();
+		IterativeDeepening search = new IterativeDeepening(Duration.ofMinutes(10)).cancellation(cancelled::get);
+		CountDownLatch finished = new CountDownLatch(1);
+
+		CompletableFuture<Long> future = executor.submit(() -> {
+			long move = search.search(new BitBoard(GameStates.INITIAL.getInitState()), 64);
+			finished.countDown();
+			return move;
+		}, () -> cancelled.set(true));
+		Thread.sleep(100);
+		future.cancel(false);
+
+		Assertions.assertTrue(finished.await(5, TimeUnit.SECONDS));
+		Assertions.assertTrue(cancelled.get());
+		executor.shutdown();
+	}
+
+	@Test
+	public void testBuildTreeOnEngineThread() throws Exception {
+		EngineExecutor executor = EngineExecutor.getInstance();
+		GameTree gameTree = new GameTree(new BitBoard(GameStates.INITIAL.getInitState()), PawnType.BLACK, 3);
+
+		executor.submit(gameTree::buildTree, () -> {}).get(5, TimeUnit.SECONDS);
+
+		int children = 0;
+		for (GameTree child : gameTree) {
+			Assertions.assertTrue(child.iterator().hasNext());
+			children++;
+		}
+		Assertions.assertEquals(7, children);
+	}
+
+}
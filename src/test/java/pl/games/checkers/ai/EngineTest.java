@@ -0,0 +1,168 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.algorithm.SearchProgress;
+import pl.games.checkers.ai.algorithm.SearchStatistics;
+import pl.games.checkers.ai.book.OpeningBook;
+import pl.games.checkers.ai.book.OpeningBookBuilder;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EngineTest {
+
+	@Test
+	public void testMoveIsFoundAsynchronously() throws Exception {
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofMillis(300));
+		AtomicInteger iterations = new AtomicInteger();
+
+		CompletableFuture<Pawn> future = engine.nextMove(new BitBoard(GameStates.INITIAL.getInitState()), PawnType.BLACK,
+				progress -> iterations.incrementAndGet());
+		Assertions.assertTrue(engine.isThinking());
+
+		Pawn pawn = future.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(PawnType.BLACK, pawn.getType());
+		Assertions.assertEquals(3, pawn.nextPosition().row());
+		Assertions.assertTrue(iterations.get() > 0);
+		executor.shutdown();
+	}
+
+	@Test
+	public void testStatisticsArePassedToListeners() throws Exception {
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofMillis(200));
+		List<SearchStatistics> searches = new CopyOnWriteArrayList<>();
+		engine.addListener(searches::add);
+		long before = SearchMonitor.getInstance().getSearches();
+
+		engine.nextMove(new BitBoard(GameStates.INITIAL.getInitState()), PawnType.BLACK).get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+
+		Assertions.assertEquals(1, searches.size());
+		Assertions.assertTrue(searches.get(0).getNodes() > 0);
+		Assertions.assertEquals(searches.get(0).getDepth(), searches.get(0).getIterations().size());
+		Object monitored = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(SearchMonitor.NAME), "Searches");
+		Assertions.assertTrue((Long) monitored > before);
+	}
+
+	@Test
+	public void testCancelFreesExecutor() throws Exception {
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofMinutes(10));
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+
+		CompletableFuture<Pawn> first = engine.nextMove(board, PawnType.BLACK);
+		Thread.sleep(100);
+		engine.cancel();
+		Assertions.assertTrue(first.isCancelled());
+
+		Engine quick = new Engine(executor, Duration.ofMillis(100));
+		Assertions.assertNotNull(quick.nextMove(board, PawnType.WHITE).get(5, TimeUnit.SECONDS));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testPonderHitContinuesPonderingSearch() throws Exception {
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofSeconds(1)); //time for an iteration deeper than the pondered ones
+		BitBoard board = afterMoveOfAi(engine);
+		long reply = engine.expectedMove(board);
+		Assertions.assertNotEquals(BitMove.NONE, reply);
+
+		CompletableFuture<Pawn> pondering = engine.ponder(board, PawnType.BLACK);
+		Assertions.assertTrue(engine.isPondering());
+		Assertions.assertFalse(engine.isThinking());
+		Thread.sleep(100);
+		board.makeMove(reply);
+		List<SearchProgress> iterations = new CopyOnWriteArrayList<>();
+		CompletableFuture<Pawn> future = engine.nextMove(board, PawnType.BLACK, iterations::add);
+
+		Assertions.assertSame(pondering, future);
+		Assertions.assertFalse(engine.isPondering());
+		Assertions.assertNotNull(future.get(5, TimeUnit.SECONDS));
+		Assertions.assertFalse(iterations.isEmpty());
+		Assertions.assertTrue(iterations.get(0).getDepth() > 1);
+		executor.shutdown();
+	}
+
+	@Test
+	public void testPonderMissStartsNewSearch() throws Exception {
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofMillis(300));
+		BitBoard board = afterMoveOfAi(engine);
+		long reply = engine.expectedMove(board);
+		long other = otherMove(board, reply);
+
+		engine.ponder(board, PawnType.BLACK);
+		Thread.sleep(100);
+		board.makeMove(other);
+		long entry = engine.getTable().probe(board.hash()); //kept by the search of the previous move
+		int depth = entry != 0L && TranspositionTable.bound(entry) == TranspositionTable.EXACT ? TranspositionTable.depth(entry) : 1;
+		List<SearchProgress> iterations = new CopyOnWriteArrayList<>();
+		Pawn pawn = engine.nextMove(board, PawnType.BLACK, iterations::add).get(5, TimeUnit.SECONDS);
+
+		Assertions.assertEquals(PawnType.BLACK, pawn.getType());
+		Assertions.assertEquals(depth, iterations.get(0).getDepth());
+		executor.shutdown();
+	}
+
+	@Test
+	public void testBookMoveIsPlayedAtOnce(@TempDir Path directory) throws Exception {
+		OpeningBookBuilder builder = new OpeningBookBuilder();
+		builder.addGame("21-17", 1);
+		builder.write(directory.resolve("opening.book"));
+		EngineExecutor executor = new EngineExecutor(2);
+		Engine engine = new Engine(executor, Duration.ofMinutes(10), new OpeningBook(directory.resolve("opening.book")));
+
+		CompletableFuture<Pawn> future = engine.nextMove(new BitBoard(GameStates.INITIAL.getInitState()), PawnType.WHITE);
+
+		Assertions.assertTrue(future.isDone());
+		Assertions.assertEquals(4, future.get().nextPosition().row());
+		Assertions.assertEquals(1, future.get().nextPosition().column());
+		executor.shutdown();
+	}
+
+	/**
+	 * @return move other than the expected one, which leaves AI more than one move to think about
+	 */
+	private static long otherMove(BitBoard board, long expected) {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		long[] replies = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			int replyCount = MoveGenerator.generate(board, board.getTurn(), replies);
+			board.unmakeMove(moves[i]);
+			if (moves[i] != expected && replyCount > 1) {
+				return moves[i];
+			}
+		}
+		throw new IllegalStateException("no other move");
+	}
+
+	private static BitBoard afterMoveOfAi(Engine engine) throws Exception {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.BLACK);
+		Pawn pawn = engine.nextMove(board, PawnType.BLACK).get(5, TimeUnit.SECONDS);
+		board.makeMove(pawn.getMove().bitMove());
+		return board;
+	}
+
+}
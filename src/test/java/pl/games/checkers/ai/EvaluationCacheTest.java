@@ -0,0 +1,56 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationCacheTest {
+
+	@Test
+	public void testRateIsCached() {
+		EvaluationCache cache = new EvaluationCache(1);
+		BitBoard board = new BitBoard(GameStates.BEAT.getInitState());
+
+		long rate = cache.rate(board);
+
+		Assertions.assertEquals(Evaluation.rate(board, true), rate);
+		Assertions.assertEquals(rate, cache.rate(board));
+		Assertions.assertEquals(1, cache.getHits());
+		Assertions.assertEquals(1, cache.getMisses());
+		Assertions.assertEquals(0.5, cache.getHitRate());
+	}
+
+	@Test
+	public void testKeyIncludesPawnTypeToMove() {
+		EvaluationCache cache = new EvaluationCache(1);
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+
+		board.setTurn(PawnType.BLACK);
+		cache.rate(board);
+		board.setTurn(PawnType.WHITE);
+		cache.rate(board);
+
+		Assertions.assertEquals(0, cache.getHits());
+		Assertions.assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testNegativeRateAndNewPosition() {
+		EvaluationCache cache = new EvaluationCache(1);
+		BitBoard board = new BitBoard(0, Squares.bit(Squares.index(5, 2)), 0);
+		long rate = cache.rate(board);
+
+		board.makeMove(BitMove.of(Squares.index(5, 2), Squares.index(4, 1), 0));
+		cache.resetCounters();
+
+		Assertions.assertTrue(rate < 0);
+		Assertions.assertEquals(Evaluation.rate(board, true), cache.rate(board));
+		Assertions.assertEquals(1, cache.getMisses());
+	}
+
+}
@@ -58,4 +58,28 @@ public class GameTreeTest {
 		Assertions.assertEquals(0, countWhite);
 	}
 
+	@Test
+	public void testLazyDepth() {
+		Board<Pawn> board = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, GameStates.INITIAL.getInitState());
+
+		GameTree gameTree = new GameTree(board, PawnType.BLACK, DEPTH).lazy();
+
+		int i = 0;
+		for (Iterator<GameTree> iterator = gameTree.iterator(); iterator.hasNext(); iterator = iterator.next().iterator()) {
+			i++;
+		}
+		Assertions.assertEquals(DEPTH, i);
+	}
+
+	@Test
+	public void testLazyFirstMoveToRow3() {
+		Board<Pawn> board = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, GameStates.INITIAL.getInitState());
+
+		GameTree gameTree = new GameTree(board, PawnType.BLACK, DEPTH).lazy();
+
+		Pawn pawn = new Minimax().nextMove(gameTree);
+		Assertions.assertNotNull(pawn);
+		Assertions.assertEquals(3, pawn.nextPosition().row());
+	}
+
 }
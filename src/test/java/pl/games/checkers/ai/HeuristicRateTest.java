@@ -1,6 +1,8 @@
 package pl.games.checkers.ai;
 
+import pl.games.checkers.model.BitBoard;
 import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
 import pl.games.checkers.ui.Checkerboard;
 
 import org.junit.jupiter.api.Assertions;
@@ -25,4 +27,21 @@ public class HeuristicRateTest {
 		Assertions.assertEquals(Math.abs(rateWhite.rate()), rateBlack.rate(), "Black & White scores are not equal");
 	}
 
+	@Test
+	public void checkBeatingsAreRated() {
+		int blackMan = Squares.bit(Squares.index(2, 3));
+		int blackKing = Squares.bit(Squares.index(7, 0));
+		int whiteKing = Squares.bit(Squares.index(3, 4));
+		int whiteMan = Squares.bit(Squares.index(5, 2));
+		BitBoard board = new BitBoard(blackMan | blackKing, whiteKing | whiteMan, blackKing | whiteKing);
+
+		long withBeatings = new HeuristicRate(board, PawnType.BLACK).rate();
+		long withoutBeatings = new HeuristicRate(board, PawnType.BLACK, false).rate();
+
+		Assertions.assertEquals(Evaluation.BEATING_KING_SCORE + Evaluation.BEATING_SCORE, Evaluation.beatings(board, PawnType.BLACK));
+		Assertions.assertEquals(Evaluation.BEATING_SCORE, Evaluation.beatings(board, PawnType.WHITE));
+		Assertions.assertEquals(board.material(), withoutBeatings);
+		Assertions.assertEquals(withoutBeatings + Evaluation.BEATING_KING_SCORE, withBeatings);
+	}
+
 }
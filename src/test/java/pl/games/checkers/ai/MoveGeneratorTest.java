@@ -0,0 +1,61 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoveGeneratorTest {
+
+	@Test
+	public void testInitialMoves() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+
+		Assertions.assertEquals(7, MoveGenerator.generate(board, PawnType.BLACK, moves));
+		Assertions.assertEquals(7, MoveGenerator.generate(board, PawnType.WHITE, moves));
+	}
+
+	@Test
+	public void testKingBeatsWholeChain() {
+		List<Pawn> pawnList = GameStates.BEAT.getInitState();
+		pawnList.forEach(Pawn::setKing);
+		BitBoard board = new BitBoard(pawnList);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+
+		int count = MoveGenerator.generate(board, PawnType.BLACK, moves);
+
+		Assertions.assertTrue(count > 0);
+		long best = moves[0];
+		for (int i = 0; i < count; i++) {
+			Assertions.assertTrue(BitMove.hasBeating(moves[i]), "Beating is obligatory");
+			if (Integer.bitCount(BitMove.captured(moves[i])) > Integer.bitCount(BitMove.captured(best))) {
+				best = moves[i];
+			}
+		}
+		Assertions.assertEquals(board.white(), BitMove.captured(best));
+
+		int[] path = MoveGenerator.path(board, best);
+		Assertions.assertEquals(2, path.length);
+		Assertions.assertEquals(BitMove.to(best), path[1]);
+	}
+
+	@Test
+	public void testMerePawnBeatsBackward() {
+		int black = Squares.bit(Squares.index(4, 3));
+		int white = Squares.bit(Squares.index(3, 2));
+		BitBoard board = new BitBoard(black, white, 0);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+
+		Assertions.assertEquals(1, MoveGenerator.generate(board, PawnType.BLACK, moves));
+		Assertions.assertEquals(Squares.index(2, 1), BitMove.to(moves[0]));
+	}
+
+}
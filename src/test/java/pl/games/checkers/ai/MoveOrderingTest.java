@@ -0,0 +1,50 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrderingTest {
+
+	@Test
+	public void testBeatingOfKingFirst() {
+		int men = Squares.bit(Squares.index(3, 2));
+		int king = Squares.bit(Squares.index(3, 4));
+		BitBoard board = new BitBoard(Squares.bit(Squares.index(2, 3)), men | king, king);
+		long beatMan = BitMove.of(Squares.index(2, 3), Squares.index(4, 1), men);
+		long beatKing = BitMove.of(Squares.index(2, 3), Squares.index(4, 5), king);
+		long[] moves = { beatMan, beatKing };
+
+		new MoveOrdering().order(board, moves, moves.length, 0L, 0);
+
+		Assertions.assertEquals(beatKing, moves[0]);
+	}
+
+	@Test
+	public void testKillerAndHistory() {
+		BitBoard board = new BitBoard(Squares.bit(Squares.index(2, 3)) | Squares.bit(Squares.index(2, 5)), 0, 0);
+		board.setTurn(PawnType.BLACK);
+		long first = BitMove.of(Squares.index(2, 3), Squares.index(3, 2), 0);
+		long second = BitMove.of(Squares.index(2, 3), Squares.index(3, 4), 0);
+		long third = BitMove.of(Squares.index(2, 5), Squares.index(3, 6), 0);
+		MoveOrdering ordering = new MoveOrdering();
+
+		ordering.cutoff(PawnType.BLACK, third, 1, 4, 2);
+		long[] moves = { first, second, third };
+		ordering.order(board, moves, moves.length, 0L, 1);
+		Assertions.assertEquals(third, moves[0]);
+
+		ordering.cutoff(PawnType.BLACK, second, 3, 2, 0);
+		moves = new long[] { first, second, third };
+		ordering.order(board, moves, moves.length, 0L, 2);
+		Assertions.assertArrayEquals(new long[] { third, second, first }, moves);
+
+		Assertions.assertEquals(2, ordering.getCutoffs());
+		Assertions.assertEquals(0.5, ordering.getFirstMoveCutoffRate());
+	}
+
+}
@@ -0,0 +1,55 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnBoard;
+import pl.games.checkers.model.PawnType;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PerftTest {
+
+	private final Perft perft = new Perft(new EngineExecutor(1));
+
+	@Test
+	public void testCountsOfInitialPosition() {
+		BitBoard board = BitBoard.initial(PawnType.WHITE);
+
+		for (int depth = 0; depth <= 7; depth++) {
+			Assertions.assertEquals(Perft.INITIAL[depth], perft.count(board, depth), "depth " + depth);
+		}
+		Assertions.assertEquals(Perft.INITIAL[5], perft.count(BitBoard.initial(PawnType.BLACK), 5));
+	}
+
+	@Test
+	public void testPawnBoardAgreesWithBitBoard() {
+		List<Pawn> kings = GameStates.BEAT.getInitState();
+		kings.forEach(Pawn::setKing);
+		BitBoard board = new BitBoard(kings);
+		board.setTurn(PawnType.WHITE);
+
+		Assertions.assertEquals(Perft.INITIAL[5], perft.count(PawnBoard.create(BitBoard.initial(PawnType.WHITE)), 5));
+		Assertions.assertEquals(perft.count(board, 6), perft.count(PawnBoard.create(board), 6));
+	}
+
+	@Test
+	public void testParallelDivide() {
+		EngineExecutor executor = new EngineExecutor(2);
+		BitBoard board = BitBoard.initial(PawnType.WHITE);
+		long hash = board.hash();
+
+		Map<Long, Long> counts = new Perft(executor).divide(board, 6);
+		executor.shutdown();
+
+		Assertions.assertEquals(Perft.INITIAL[1], counts.size());
+		Assertions.assertEquals(Perft.INITIAL[6], counts.values().stream().mapToLong(Long::longValue).sum());
+		Assertions.assertEquals(perft.divide(board, 6), counts);
+		Assertions.assertEquals(hash, board.hash());
+	}
+
+}
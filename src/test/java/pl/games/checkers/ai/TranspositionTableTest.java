@@ -0,0 +1,102 @@
+package pl.games.checkers.ai;
+
+import pl.games.checkers.model.BitMove;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+	private static final long HASH = 0x1234_5678_9abc_def0L;
+
+	@Test
+	public void testStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1, TranspositionTable.Replacement.DEPTH_PREFERRED);
+		long move = BitMove.of(9, 13, 0);
+
+		Assertions.assertEquals(0L, table.probe(HASH));
+
+		table.store(HASH, 5, TranspositionTable.LOWER, -42, move);
+		long entry = table.probe(HASH);
+
+		Assertions.assertEquals(-42, TranspositionTable.score(entry));
+		Assertions.assertEquals(5, TranspositionTable.depth(entry));
+		Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+		Assertions.assertTrue(TranspositionTable.isBestMove(entry, move));
+		Assertions.assertEquals(0L, table.probe(HASH + 1));
+	}
+
+	@Test
+	public void testReplacement() {
+		TranspositionTable depthPreferred = new TranspositionTable(1, TranspositionTable.Replacement.DEPTH_PREFERRED);
+		TranspositionTable alwaysReplace = new TranspositionTable(1, TranspositionTable.Replacement.ALWAYS_REPLACE);
+		long collision = HASH + ((long) depthPreferred.capacity() << 32) + depthPreferred.capacity();
+
+		for (TranspositionTable table : new TranspositionTable[] { depthPreferred, alwaysReplace }) {
+			table.store(HASH, 6, TranspositionTable.EXACT, 1, BitMove.NONE);
+			table.store(collision, 2, TranspositionTable.EXACT, 2, BitMove.NONE);
+		}
+
+		Assertions.assertNotEquals(0L, depthPreferred.probe(HASH));
+		Assertions.assertEquals(0L, depthPreferred.probe(collision));
+		Assertions.assertEquals(0L, alwaysReplace.probe(HASH));
+		Assertions.assertNotEquals(0L, alwaysReplace.probe(collision));
+	}
+
+	@Test
+	public void testEntryOfPreviousSearchIsReplaced() {
+		TranspositionTable table = new TranspositionTable(1, TranspositionTable.Replacement.DEPTH_PREFERRED);
+		long collision = HASH + ((long) table.capacity() << 32) + table.capacity();
+
+		table.store(HASH, 6, TranspositionTable.EXACT, 1, BitMove.NONE);
+		table.newSearch();
+		Assertions.assertEquals(6, TranspositionTable.depth(table.probe(HASH)));
+
+		table.store(collision, 2, TranspositionTable.EXACT, 2, BitMove.NONE);
+		Assertions.assertEquals(0L, table.probe(HASH));
+		Assertions.assertFalse(TranspositionTable.isBestMove(table.probe(collision), BitMove.of(0, 0, 0)));
+	}
+
+	@Test
+	public void testAgeOfSearchIsSeenByOtherThreads() throws Exception {
+		TranspositionTable table = new TranspositionTable(1, TranspositionTable.Replacement.DEPTH_PREFERRED);
+		long collision = HASH + ((long) table.capacity() << 32) + table.capacity();
+		CountDownLatch stored = new CountDownLatch(1);
+		CountDownLatch newSearch = new CountDownLatch(1);
+		AtomicLong sameSearch = new AtomicLong();
+
+		table.store(HASH, 6, TranspositionTable.EXACT, 1, BitMove.NONE);
+		Thread helper = new Thread(() -> {
+			table.store(collision, 2, TranspositionTable.EXACT, 2, BitMove.NONE);
+			sameSearch.set(table.probe(HASH));
+			stored.countDown();
+			try {
+				newSearch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			table.store(collision, 2, TranspositionTable.EXACT, 2, BitMove.NONE);
+		});
+		helper.start();
+		stored.await();
+		table.newSearch();
+		newSearch.countDown();
+		helper.join();
+
+		Assertions.assertEquals(6, TranspositionTable.depth(sameSearch.get()));
+		Assertions.assertEquals(0L, table.probe(HASH));
+		Assertions.assertEquals(2, TranspositionTable.depth(table.probe(collision)));
+	}
+
+	@Test
+	public void testWinScoreDoesNotDependOnPly() {
+		long win = 1_000_000 - 7;
+
+		Assertions.assertEquals(win + 2, TranspositionTable.fromTable(TranspositionTable.toTable(win, 5), 3));
+		Assertions.assertEquals(10, TranspositionTable.fromTable(TranspositionTable.toTable(10, 5), 3));
+	}
+
+}
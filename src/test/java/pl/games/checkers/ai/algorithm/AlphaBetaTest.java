@@ -0,0 +1,65 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.GameTree;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.Board;
+import pl.games.checkers.model.Pawn;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AlphaBetaTest {
+
+	private static final int DEPTH = 4;
+
+	@Test
+	public void testFirstMoveToRow3() {
+		Board<Pawn> board = new BitBoard(GameStates.INITIAL.getInitState());
+
+		Pawn pawn = new AlphaBeta().nextMove(new GameTree(board, PawnType.BLACK, DEPTH));
+
+		Assertions.assertNotNull(pawn);
+		Assertions.assertEquals(3, pawn.nextPosition().row());
+	}
+
+	@Test
+	public void testKingBeating() {
+		List<Pawn> pawnList = GameStates.BEAT.getInitState();
+		pawnList.forEach(Pawn::setKing);
+		Board<Pawn> board = new BitBoard(pawnList);
+
+		Pawn pawn = new AlphaBeta().nextMove(new GameTree(board, PawnType.BLACK, DEPTH));
+
+		Assertions.assertTrue(pawn.hasBeating());
+		Assertions.assertEquals(2, pawn.nextPosition().row());
+		Assertions.assertEquals(5, pawn.nextPosition().column());
+	}
+
+	@Test
+	public void testBeatingBehindHorizonIsSeen() {
+		BitBoard board = new BitBoard(Squares.bit(Squares.index(3, 2)), Squares.bit(Squares.index(5, 4)), 0);
+		board.setTurn(PawnType.BLACK);
+
+		long move = new AlphaBeta().search(board, 1);
+
+		Assertions.assertEquals(Squares.index(4, 1), BitMove.to(move));
+	}
+
+	@Test
+	public void testBoardIsNotChanged() {
+		Board<Pawn> board = new BitBoard(GameStates.INITIAL.getInitState());
+		GameTree gameTree = new GameTree(board, PawnType.WHITE, DEPTH);
+		String before = gameTree.getBoard().toString();
+
+		new AlphaBeta().nextMove(gameTree);
+
+		Assertions.assertEquals(before, gameTree.getBoard().toString());
+	}
+
+}
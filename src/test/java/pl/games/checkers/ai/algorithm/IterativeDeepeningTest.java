@@ -0,0 +1,138 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.TranspositionTable;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IterativeDeepeningTest {
+
+	private static final Duration TIME_BUDGET = Duration.ofMillis(300);
+
+	@Test
+	public void testTimeBudget() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.BLACK);
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(TIME_BUDGET);
+
+		long start = System.nanoTime();
+		long move = iterativeDeepening.search(board, AlphaBeta.MAX_DEPTH);
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		Assertions.assertNotEquals(BitMove.NONE, move);
+		Assertions.assertTrue(iterativeDeepening.getDepth() >= 1);
+		Assertions.assertTrue(elapsed.compareTo(TIME_BUDGET.multipliedBy(2)) < 0, "Search took " + elapsed);
+	}
+
+	@Test
+	public void testNodeBudget() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		AlphaBeta alphaBeta = new AlphaBeta(1, TranspositionTable.Replacement.ALWAYS_REPLACE);
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(alphaBeta, Duration.ofMinutes(1), 2_000);
+
+		long move = iterativeDeepening.search(board, AlphaBeta.MAX_DEPTH);
+
+		Assertions.assertNotEquals(BitMove.NONE, move);
+		Assertions.assertTrue(iterativeDeepening.getDepth() < AlphaBeta.MAX_DEPTH);
+	}
+
+	@Test
+	public void testMaxDepth() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(Duration.ofMinutes(1));
+
+		iterativeDeepening.search(board, 3);
+
+		Assertions.assertEquals(3, iterativeDeepening.getDepth());
+	}
+
+	@Test
+	public void testStatisticsOfIterations() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(Duration.ofMinutes(1));
+
+		iterativeDeepening.search(board, 4);
+		SearchStatistics statistics = iterativeDeepening.getStatistics();
+
+		Assertions.assertEquals(4, statistics.getDepth());
+		Assertions.assertEquals(4, statistics.getIterations().size());
+		Assertions.assertEquals(iterativeDeepening.getNodes(), statistics.getNodes());
+		Assertions.assertTrue(statistics.getMaxPly() >= 4);
+		Assertions.assertTrue(statistics.getEvaluations() > 0);
+		Assertions.assertTrue(statistics.getBetaCutoffs() >= statistics.getFirstMoveCutoffs() && statistics.getFirstMoveCutoffs() > 0);
+		Assertions.assertTrue(statistics.getTableHits() > 0 && statistics.getTableHits() <= statistics.getTableProbes());
+		Assertions.assertTrue(statistics.getNodesPerSecond() > 0);
+	}
+
+	@Test
+	public void testFlightRecorderEvents(@TempDir Path directory) throws IOException {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(Duration.ofMinutes(1));
+		Path file = directory.resolve("search.jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable("pl.games.checkers.Search");
+			recording.enable("pl.games.checkers.Iteration");
+			recording.start();
+			iterativeDeepening.search(board, 3);
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().startsWith("pl.games.checkers."))
+				.collect(Collectors.toList());
+
+		Assertions.assertEquals(4, events.size());
+		RecordedEvent search = events.get(events.size() - 1);
+		Assertions.assertEquals("pl.games.checkers.Search", search.getEventType().getName());
+		Assertions.assertEquals(3, search.getInt("depth"));
+		Assertions.assertEquals(iterativeDeepening.getNodes(), search.getLong("nodes"));
+		Assertions.assertEquals(1, events.get(0).getInt("depth"));
+	}
+
+	@Test
+	public void testSearchGoesOnFromPreviousMove() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.BLACK);
+		AlphaBeta alphaBeta = new AlphaBeta();
+		IterativeDeepening iterativeDeepening = new IterativeDeepening(alphaBeta, Duration.ofMinutes(1), Long.MAX_VALUE);
+		board.makeMove(iterativeDeepening.search(board, 8));
+		board.makeMove(expectedReply(alphaBeta.getTable(), board));
+		List<SearchProgress> iterations = new ArrayList<>();
+
+		iterativeDeepening.progress(iterations::add).search(board, 8);
+
+		Assertions.assertEquals(6, iterations.get(0).getDepth());
+		Assertions.assertEquals(0, iterations.get(0).getNodes());
+		Assertions.assertEquals(8, iterativeDeepening.getDepth());
+	}
+
+	private static long expectedReply(TranspositionTable table, BitBoard board) {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		long entry = table.probe(board.hash());
+		for (int i = 0; i < count; i++) {
+			if (TranspositionTable.isBestMove(entry, moves[i])) {
+				return moves[i];
+			}
+		}
+		throw new IllegalStateException("no expected reply");
+	}
+
+}
@@ -0,0 +1,63 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LazySmpTest {
+
+	private static final int DEPTH = 6;
+
+	@Test
+	public void testAvoidsLosingMove() {
+		BitBoard board = new BitBoard(Squares.bit(Squares.index(3, 2)), Squares.bit(Squares.index(5, 4)), 0);
+		board.setTurn(PawnType.BLACK);
+		EngineExecutor executor = new EngineExecutor(4);
+
+		long move = new LazySmp(executor, 4, Duration.ofMinutes(1), 1).search(board, DEPTH);
+
+		Assertions.assertEquals(Squares.index(4, 1), BitMove.to(move));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testHelpersStopWithMainSearch() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		String before = board.toString();
+		EngineExecutor executor = new EngineExecutor(2);
+		LazySmp lazySmp = new LazySmp(executor, 4, Duration.ofMillis(200), 1);
+
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertNotEquals(BitMove.NONE, lazySmp.search(board, AlphaBeta.MAX_DEPTH));
+		}
+
+		Assertions.assertEquals(before, board.toString());
+		Assertions.assertTrue(lazySmp.getNodes() > 0);
+		executor.shutdown();
+	}
+
+	@Test
+	public void testStatisticsOfAllThreads() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		EngineExecutor executor = new EngineExecutor(2);
+		LazySmp lazySmp = new LazySmp(executor, 2, Duration.ofMinutes(1), 1);
+
+		lazySmp.search(board, DEPTH);
+		SearchStatistics statistics = lazySmp.getStatistics();
+
+		Assertions.assertEquals(lazySmp.getNodes(), statistics.getNodes());
+		Assertions.assertEquals(lazySmp.getDepth(), statistics.getDepth());
+		Assertions.assertEquals(DEPTH, statistics.getIterations().size());
+		Assertions.assertTrue(statistics.getElapsed().compareTo(statistics.getIterations().get(DEPTH - 1)) >= 0);
+		executor.shutdown();
+	}
+
+}
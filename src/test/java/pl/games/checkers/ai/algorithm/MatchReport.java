@@ -0,0 +1,79 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.PawnType;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Plays {@link MonteCarloTreeSearch} against minimax with alpha-beta ({@link IterativeDeepening}) with the same time
+ * per move and prints the score. Games start after seeded random openings, each opening is played with both colors.
+ * Game which is not finished after {@value #MAX_PLIES} plies is a draw.
+ * Run by gradle task matchReport, arguments: time per move in ms (default 100), number of openings (default 5).
+ */
+public class MatchReport {
+
+	private static final int OPENING_PLIES = 4;
+	private static final int MAX_PLIES = 200;
+
+	public static void main(String[] args) {
+		Duration time = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 100);
+		int openings = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int threads = Runtime.getRuntime().availableProcessors();
+		EngineExecutor executor = new EngineExecutor(threads);
+		MonteCarloTreeSearch monteCarlo = new MonteCarloTreeSearch(executor, threads, time, Long.MAX_VALUE,
+				MonteCarloTreeSearch.DEFAULT_MAX_NODES);
+		IterativeDeepening alphaBeta = new IterativeDeepening(time);
+
+		System.out.printf("MCTS (%d threads) against alpha-beta, %d ms per move, %d games%n",
+				threads, time.toMillis(), 2 * openings);
+		int[] score = new int[3]; //wins, draws and losses of MCTS
+		long playouts = 0;
+		long moves = 0;
+		for (int opening = 0; opening < openings; opening++) {
+			for (PawnType monteCarloType : PawnType.values()) {
+				BitBoard board = opening(opening);
+				int ply = 0;
+				PawnType winner = null;
+				for (long[] legal = new long[MoveGenerator.MAX_MOVES]; ply < MAX_PLIES; ply++) {
+					if (MoveGenerator.generate(board, board.getTurn(), legal) == 0) {
+						winner = board.getTurn().negate();
+						break;
+					}
+					long move;
+					if (board.getTurn() == monteCarloType) {
+						move = monteCarlo.search(board);
+						playouts += monteCarlo.getPlayouts();
+						moves++;
+					} else {
+						move = alphaBeta.search(board, AlphaBeta.MAX_DEPTH);
+					}
+					board.makeMove(move);
+				}
+				int result = winner == null ? 1 : winner == monteCarloType ? 0 : 2;
+				score[result]++;
+				System.out.printf("opening %d, MCTS plays %s: %s after %d plies%n",
+						opening, monteCarloType, new String[] { "MCTS won", "draw", "alpha-beta won" }[result], ply);
+			}
+		}
+		System.out.printf("MCTS: %d wins, %d draws, %d losses, %d playouts per move%n",
+				score[0], score[1], score[2], moves == 0 ? 0 : playouts / moves);
+		executor.shutdown();
+	}
+
+	private static BitBoard opening(long seed) {
+		Random random = new Random(seed);
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.BLACK);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		for (int ply = 0; ply < OPENING_PLIES; ply++) {
+			board.makeMove(moves[random.nextInt(MoveGenerator.generate(board, board.getTurn(), moves))]);
+		}
+		return board.copy();
+	}
+
+}
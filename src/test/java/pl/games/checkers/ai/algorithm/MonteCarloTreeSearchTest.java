@@ -0,0 +1,81 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MonteCarloTreeSearchTest {
+
+	@Test
+	public void testAvoidsLosingMove() {
+		BitBoard board = new BitBoard(Squares.bit(Squares.index(3, 2)), Squares.bit(Squares.index(5, 4)), 0);
+		board.setTurn(PawnType.BLACK);
+		EngineExecutor executor = new EngineExecutor(2);
+
+		long move = new MonteCarloTreeSearch(executor, 2, Duration.ofMinutes(1), 2_000, 1 << 12).search(board);
+
+		Assertions.assertEquals(Squares.index(4, 1), BitMove.to(move));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testPlayoutsAndNodesAreBounded() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.BLACK);
+		String before = board.toString();
+		EngineExecutor executor = new EngineExecutor(2);
+		MonteCarloTreeSearch search = new MonteCarloTreeSearch(executor, 3, Duration.ofMinutes(1), 500, 512);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, PawnType.BLACK, moves);
+
+		for (int i = 0; i < 2; i++) { //pool is recycled by the second search
+			long move = search.search(board);
+
+			Assertions.assertTrue(Arrays.stream(moves, 0, count).anyMatch(m -> m == move));
+			Assertions.assertTrue(search.getPlayouts() >= 500 && search.getPlayouts() < 500 + search.getThreads());
+			Assertions.assertTrue(search.getNodes() <= 512);
+		}
+		Assertions.assertEquals(before, board.toString());
+		executor.shutdown();
+	}
+
+	@Test
+	public void testMoveOfSearchStoppedAtOnce() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.WHITE);
+		MonteCarloTreeSearch search = new MonteCarloTreeSearch(1, Duration.ofMinutes(1)).cancellation(() -> true);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		MoveGenerator.generate(board, PawnType.WHITE, moves);
+
+		Assertions.assertEquals(moves[0], search.search(board));
+		Assertions.assertEquals(0, search.getPlayouts());
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new MonteCarloTreeSearch(EngineExecutor.getInstance(), 1, Duration.ofSeconds(1), 1, MoveGenerator.MAX_MOVES));
+	}
+
+	@Test
+	public void testTimeBudget() {
+		BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+		board.setTurn(PawnType.WHITE);
+		MonteCarloTreeSearch search = new MonteCarloTreeSearch(1, Duration.ofMillis(200));
+
+		long start = System.nanoTime();
+		long move = search.search(board);
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		Assertions.assertNotEquals(BitMove.NONE, move);
+		Assertions.assertTrue(search.getPlayouts() > 0);
+		Assertions.assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "Search took " + elapsed);
+	}
+
+}
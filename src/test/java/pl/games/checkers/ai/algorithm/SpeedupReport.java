@@ -0,0 +1,89 @@
+package pl.games.checkers.ai.algorithm;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Prints speed-up of {@link LazySmp} for 1, 2, 4 and 8 threads: time to complete search to a fixed depth
+ * of fixed positions, the initial one and positions after seeded random openings.
+ * Run by gradle task speedupReport, arguments: depth (default 10), number of repetitions (default 3).
+ */
+public class SpeedupReport {
+
+	private static final int[] THREADS = { 1, 2, 4, 8 };
+	private static final long[] OPENING_SEEDS = { 1, 2, 3 };
+	private static final int OPENING_PLIES = 8;
+
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		List<BitBoard> positions = positions();
+
+		System.out.printf("Lazy SMP, depth %d, %d positions, %d repetitions, %d processors%n",
+				depth, positions.size(), repetitions, Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %12s %14s %12s %9s%n", "threads", "time [ms]", "nodes", "knps", "speed-up");
+
+		measure(1, depth, positions); //warm up
+		double base = 0;
+		for (int threads : THREADS) {
+			long time = 0;
+			long nodes = 0;
+			for (int i = 0; i < repetitions; i++) {
+				long[] result = measure(threads, depth, positions);
+				time += result[0];
+				nodes += result[1];
+			}
+			double millis = time / 1e6 / repetitions;
+			if (threads == 1) {
+				base = millis;
+			}
+			System.out.printf("%8d %12.1f %14d %12.1f %9.2f%n",
+					threads, millis, nodes / repetitions, nodes / (time / 1e6), base / millis);
+		}
+	}
+
+	/**
+	 * @return time in nanoseconds and number of nodes
+	 */
+	private static long[] measure(int threads, int depth, List<BitBoard> positions) {
+		EngineExecutor executor = new EngineExecutor(threads);
+		long time = 0;
+		long nodes = 0;
+		for (BitBoard position : positions) {
+			LazySmp lazySmp = new LazySmp(executor, threads, Duration.ofHours(1), AlphaBeta.DEFAULT_TABLE_SIZE);
+			long start = System.nanoTime();
+			lazySmp.search(position.copy(), depth);
+			time += System.nanoTime() - start;
+			nodes += lazySmp.getNodes();
+		}
+		executor.shutdown();
+		return new long[] { time, nodes };
+	}
+
+	private static List<BitBoard> positions() {
+		List<BitBoard> positions = new ArrayList<>();
+		positions.add(new BitBoard(GameStates.INITIAL.getInitState()));
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		for (long seed : OPENING_SEEDS) {
+			Random random = new Random(seed);
+			BitBoard board = new BitBoard(GameStates.INITIAL.getInitState());
+			for (int ply = 0; ply < OPENING_PLIES; ply++) {
+				int count = MoveGenerator.generate(board, board.getTurn(), moves);
+				if (count == 0) {
+					break;
+				}
+				board.makeMove(moves[random.nextInt(count)]);
+			}
+			positions.add(board.copy());
+		}
+		return positions;
+	}
+
+}
@@ -0,0 +1,102 @@
+package pl.games.checkers.ai.book;
+
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OpeningBookTest {
+
+	private static final String[] GAMES = { "1. 21-17 9-13 2. 22-18 *", "21-17 9-14 1-0", "21-17 9-13" };
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testMovesOfGamesAreWeightedByCount() throws IOException {
+		OpeningBook book = build(GAMES);
+		BitBoard board = BitBoard.initial(PawnType.WHITE);
+		long first = move(20, 16);
+
+		Assertions.assertEquals(first, book.move(board, new Random(1)));
+		Assertions.assertEquals(GAMES.length, book.weight(board.hash(), first));
+
+		board.makeMove(first);
+		Assertions.assertEquals(2, book.weight(board.hash(), move(8, 12)));
+		Assertions.assertEquals(1, book.weight(board.hash(), move(8, 13)));
+		Assertions.assertEquals(0, book.weight(board.hash(), move(9, 13)));
+		Assertions.assertEquals(4, book.size());
+	}
+
+	@Test
+	public void testMovesVaryByWeights() throws IOException {
+		OpeningBook book = build(GAMES);
+		BitBoard board = BitBoard.initial(PawnType.WHITE);
+		board.makeMove(move(20, 16));
+		Random random = new Random(7);
+		int frequent = 0;
+
+		for (int i = 0; i < 3000; i++) {
+			long move = book.move(board, random);
+			Assertions.assertTrue(move == move(8, 12) || move == move(8, 13));
+			frequent += move == move(8, 12) ? 1 : 0;
+		}
+		Assertions.assertTrue(frequent > 1800 && frequent < 2200, "2 of 3 moves should be the more frequent one: " + frequent);
+	}
+
+	@Test
+	public void testPositionOutOfBook() throws IOException {
+		OpeningBook book = build(GAMES);
+		BitBoard board = BitBoard.initial(PawnType.BLACK);
+
+		Assertions.assertEquals(BitMove.NONE, book.move(board, new Random()));
+		Assertions.assertEquals(BitMove.NONE, new OpeningBook(null).move(board, new Random()));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder().addGame("21-16", 1));
+	}
+
+	@Test
+	public void testSearchKeepsGoodMoves() throws IOException {
+		OpeningBookBuilder builder = new OpeningBookBuilder();
+		BitBoard board = BitBoard.initial(PawnType.BLACK);
+		builder.addSearch(board, 2, 4);
+		Path file = directory.resolve("search.book");
+		builder.write(file);
+		OpeningBook book = new OpeningBook(file);
+
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(board, board.getTurn(), moves);
+		int highest = 0;
+		for (int i = 0; i < count; i++) {
+			highest = Math.max(highest, book.weight(board.hash(), moves[i]));
+		}
+		Assertions.assertEquals(OpeningBookBuilder.MARGIN + 1, highest);
+
+		long move = book.move(board, new Random());
+		Assertions.assertTrue(book.weight(board.hash(), move) > 0);
+		board.makeMove(move);
+		Assertions.assertNotEquals(BitMove.NONE, book.move(board, new Random()));
+	}
+
+	private OpeningBook build(String... games) throws IOException {
+		OpeningBookBuilder builder = new OpeningBookBuilder();
+		for (String game : games) {
+			builder.addGame(game, 16);
+		}
+		Path file = directory.resolve("games.book");
+		builder.write(file);
+		return new OpeningBook(file);
+	}
+
+	private static long move(int from, int to) {
+		return BitMove.of(from, to, 0);
+	}
+
+}
@@ -0,0 +1,136 @@
+package pl.games.checkers.ai.endgame;
+
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ai.algorithm.AlphaBeta;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.PawnType;
+import pl.games.checkers.model.Squares;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TablebaseTest {
+
+	private static final int PIECES = 3;
+
+	@TempDir
+	static Path directory;
+	private static Tablebase tablebase;
+
+	@BeforeAll
+	public static void generate() throws IOException {
+		new TablebaseGenerator(directory).generate(PIECES);
+		tablebase = new Tablebase(directory);
+	}
+
+	@Test
+	public void testIndexOfPosition() {
+		Signature signature = new Signature(1, 1, 1, 0);
+		int[] masks = new int[3];
+
+		for (long index = 0; index < signature.size(); index++) {
+			if (signature.position(index, masks)) {
+				Assertions.assertEquals(index, signature.index(masks[0], masks[1], masks[2]));
+				Assertions.assertEquals(signature.code(), Signature.code(masks[0], masks[1], masks[2]));
+			}
+		}
+	}
+
+	@Test
+	public void testResultsAgreeWithMoves() {
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		int[] masks = new int[3];
+
+		Assertions.assertEquals(PIECES, tablebase.getPieces());
+		for (Signature signature : Signature.upTo(PIECES)) {
+			for (long index = 0; index < signature.size(); index++) {
+				if (!signature.position(index, masks)) {
+					continue;
+				}
+				for (PawnType pawnType : PawnType.values()) {
+					BitBoard board = new BitBoard(masks[0], masks[1], masks[2]);
+					int result = tablebase.probe(board, pawnType);
+					Assertions.assertEquals(expected(board, pawnType, moves), result, board::toString);
+					Assertions.assertEquals(result, tablebase.probe(Signature.mirror(masks[1]), Signature.mirror(masks[0]),
+							Signature.mirror(masks[2]), pawnType.negate()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testKingBeatsLastPawn() {
+		int blackKing = Squares.bit(Squares.index(7, 0));
+		int whiteMan = Squares.bit(Squares.index(3, 4));
+
+		Assertions.assertEquals(Tablebase.win(1), tablebase.probe(blackKing, whiteMan, blackKing, PawnType.BLACK));
+		Assertions.assertEquals(Tablebase.UNKNOWN, new Tablebase(null).probe(blackKing, whiteMan, blackKing, PawnType.BLACK));
+	}
+
+	@Test
+	public void testSearchProbesTablebase() {
+		BitBoard board = longestWin(new Signature(1, 1, 1, 0));
+		int result = tablebase.probe(board, PawnType.BLACK);
+		AlphaBeta alphaBeta = new AlphaBeta().tablebase(tablebase);
+
+		alphaBeta.search(board, 1);
+
+		Assertions.assertTrue(Tablebase.distance(result) > 1);
+		Assertions.assertEquals(AlphaBeta.WIN - Tablebase.distance(result), alphaBeta.getScore());
+
+		alphaBeta.tablebase(new Tablebase(null)).search(board, 1);
+		Assertions.assertFalse(AlphaBeta.isDecided(alphaBeta.getScore()));
+	}
+
+	/**
+	 * @return result computed from results of positions after each move
+	 */
+	private static int expected(BitBoard board, PawnType pawnType, long[] moves) {
+		int count = MoveGenerator.generate(board, pawnType, moves);
+		int shortestWin = Integer.MAX_VALUE;
+		int longestLoss = 0;
+		boolean drawn = false;
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			int result = tablebase.probe(board, pawnType.negate());
+			board.unmakeMove(moves[i]);
+			if (Tablebase.isLoss(result)) {
+				shortestWin = Math.min(shortestWin, Tablebase.distance(result) + 1);
+			} else if (Tablebase.isWin(result)) {
+				longestLoss = Math.max(longestLoss, Tablebase.distance(result) + 1);
+			} else {
+				drawn = true;
+			}
+		}
+		if (shortestWin != Integer.MAX_VALUE) {
+			return Tablebase.win(shortestWin);
+		}
+		return drawn ? Tablebase.DRAW : Tablebase.loss(longestLoss);
+	}
+
+	/**
+	 * @return position of the signature won by black to move, which takes the most plies
+	 */
+	private static BitBoard longestWin(Signature signature) {
+		int[] masks = new int[3];
+		BitBoard longest = null;
+		int distance = 0;
+		for (long index = 0; index < signature.size(); index++) {
+			if (signature.position(index, masks)) {
+				int result = tablebase.probe(masks[0], masks[1], masks[2], PawnType.BLACK);
+				if (Tablebase.isWin(result) && Tablebase.distance(result) > distance) {
+					distance = Tablebase.distance(result);
+					longest = new BitBoard(masks[0], masks[1], masks[2]);
+				}
+			}
+		}
+		longest.setTurn(PawnType.BLACK);
+		return longest;
+	}
+
+}
@@ -0,0 +1,166 @@
+package pl.games.checkers.model;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.Evaluation;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BitBoardTest {
+
+	@Test
+	public void testConversionFromPawnBoard() {
+		Board<Pawn> pawnBoard = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, GameStates.INITIAL.getInitState());
+
+		BitBoard bitBoard = BitBoard.create(pawnBoard);
+
+		Assertions.assertEquals(12, Integer.bitCount(bitBoard.black()));
+		Assertions.assertEquals(12, Integer.bitCount(bitBoard.white()));
+		Assertions.assertEquals(0, bitBoard.kings());
+		for (int row = 0; row < Checkerboard.HEIGHT; row++) {
+			for (int column = 0; column < Checkerboard.WIDTH; column++) {
+				Pawn expected = pawnBoard.getPawn(row, column);
+				Pawn actual = bitBoard.getPawn(row, column);
+				Assertions.assertEquals(expected == null, actual == null);
+				if (expected != null) {
+					Assertions.assertEquals(expected.getType(), actual.getType());
+					Assertions.assertEquals(expected.isKing(), actual.isKing());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConversionToPawnBoard() {
+		List<Pawn> pawnList = GameStates.BEAT.getInitState();
+		pawnList.get(0).setKing();
+		BitBoard bitBoard = new BitBoard(pawnList);
+
+		Board<Pawn> pawnBoard = bitBoard.toPawnBoard();
+
+		Assertions.assertEquals(3, pawnBoard.pawnsAsList().size());
+		Assertions.assertTrue(pawnBoard.getPawn(pawnList.get(0).currentPosition()).isKing());
+		Assertions.assertEquals(bitBoard.toString(), BitBoard.create(pawnBoard).toString());
+	}
+
+	@Test
+	public void testInitialPosition() {
+		BitBoard initial = BitBoard.initial(PawnType.BLACK);
+
+		Assertions.assertEquals(new BitBoard(GameStates.INITIAL.getInitState()).toString(), initial.toString());
+		Assertions.assertEquals(PawnType.BLACK, initial.getTurn());
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+		BitBoard copy = bitBoard.copy();
+
+		copy.removePawn(new Position(2, 1));
+
+		Assertions.assertTrue(bitBoard.isNotEmpty(2, 1));
+		Assertions.assertTrue(copy.isEmpty(2, 1));
+	}
+
+	@Test
+	public void testSquareNumbering() {
+		for (int square = 0; square < Squares.COUNT; square++) {
+			Assertions.assertEquals(square, Squares.index(Squares.row(square), Squares.column(square)));
+		}
+		Assertions.assertEquals(Squares.NONE, Squares.index(0, 0));
+		Assertions.assertEquals(Squares.NONE, Squares.index(-1, 0));
+	}
+
+	@Test
+	public void testSquareTables() {
+		int corner = Squares.index(7, 0);
+		int[] ray = Squares.ray(corner, Squares.direction(corner, Squares.index(6, 1)));
+
+		Assertions.assertEquals(7, ray.length);
+		Assertions.assertEquals(Squares.index(0, 7), ray[6]);
+		Assertions.assertEquals(ray[1], Squares.jump(corner, Squares.direction(corner, ray[0])));
+		Assertions.assertEquals(Squares.bit(ray[0]) | Squares.bit(ray[1]), Squares.between(corner, ray[2]));
+		Assertions.assertEquals(Squares.NONE, Squares.direction(corner, Squares.index(7, 2)));
+		Assertions.assertEquals(0, Squares.between(corner, Squares.index(7, 2)));
+	}
+
+	@Test
+	public void testMakeUnmakeBeatingWithPromotion() {
+		BitBoard bitBoard = new BitBoard(Squares.bit(Squares.index(5, 2)), Squares.bit(Squares.index(6, 3)), 0);
+		long move = BitMove.of(Squares.index(5, 2), Squares.index(7, 4), Squares.bit(Squares.index(6, 3)));
+
+		bitBoard.makeMove(move);
+
+		Assertions.assertEquals(0, bitBoard.white());
+		Assertions.assertTrue(bitBoard.getPawn(7, 4).isKing());
+
+		bitBoard.unmakeMove(move);
+
+		Assertions.assertEquals(Squares.bit(Squares.index(5, 2)), bitBoard.black());
+		Assertions.assertEquals(Squares.bit(Squares.index(6, 3)), bitBoard.white());
+		Assertions.assertEquals(0, bitBoard.kings());
+	}
+
+	@Test
+	public void testMakeUnmakeChainEndingWhereItStarted() {
+		int start = Squares.index(2, 3);
+		int captured = Squares.bit(Squares.index(3, 4)) | Squares.bit(Squares.index(5, 4))
+				| Squares.bit(Squares.index(5, 2)) | Squares.bit(Squares.index(3, 2));
+		BitBoard bitBoard = new BitBoard(Squares.bit(start), captured, 0);
+		String before = bitBoard.toString();
+		long move = BitMove.of(start, start, captured);
+
+		bitBoard.makeMove(move);
+
+		Assertions.assertEquals(Squares.bit(start), bitBoard.black());
+		Assertions.assertEquals(0, bitBoard.white());
+		Assertions.assertEquals(Zobrist.hash(bitBoard), bitBoard.hash());
+
+		bitBoard.unmakeMove(move);
+		Assertions.assertEquals(before, bitBoard.toString());
+	}
+
+	@Test
+	public void testMaterialIsKeptByMakeUnmake() {
+		BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+		bitBoard.setTurn(PawnType.BLACK);
+		Random random = new Random(7);
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		Deque<Long> played = new ArrayDeque<>();
+
+		for (int count = MoveGenerator.generate(bitBoard, bitBoard.getTurn(), moves); count > 0 && played.size() < 100;
+				count = MoveGenerator.generate(bitBoard, bitBoard.getTurn(), moves)) {
+			long move = moves[random.nextInt(count)];
+			bitBoard.makeMove(move);
+			played.push(move);
+			Assertions.assertEquals(Evaluation.material(bitBoard.black(), bitBoard.white(), bitBoard.kings()), bitBoard.material());
+		}
+		while (!played.isEmpty()) {
+			bitBoard.unmakeMove(played.pop());
+			Assertions.assertEquals(Evaluation.material(bitBoard.black(), bitBoard.white(), bitBoard.kings()), bitBoard.material());
+		}
+		Assertions.assertEquals(0, bitBoard.material());
+	}
+
+	@Test
+	public void testMakeUnmakeOnPawnBoard() {
+		List<Pawn> pawnList = GameStates.BEAT.getInitState();
+		Board<Pawn> pawnBoard = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, pawnList);
+		String before = BitBoard.create(pawnBoard).toString();
+		long move = BitMove.of(Squares.index(5, 2), Squares.index(6, 1), 0);
+
+		pawnBoard.makeMove(move);
+		Assertions.assertNotEquals(before, BitBoard.create(pawnBoard).toString());
+
+		pawnBoard.unmakeMove(move);
+		Assertions.assertEquals(before, BitBoard.create(pawnBoard).toString());
+	}
+
+}
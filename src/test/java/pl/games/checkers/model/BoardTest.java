@@ -0,0 +1,38 @@
+package pl.games.checkers.model;
+
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BoardTest {
+
+	@Test
+	public void testWholeChainOfBeatings() {
+		Board<Pawn> board = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, List.of(
+				new PawnImpl(PawnType.BLACK, new Position(2, 1), false, null),
+				new PawnImpl(PawnType.WHITE, new Position(3, 2), false, null),
+				new PawnImpl(PawnType.WHITE, new Position(5, 4), false, null)));
+
+		board.move(board.getPawn(2, 1), new Position(4, 3), true);
+
+		Assertions.assertEquals(1, board.pawnsAsList().size());
+		Assertions.assertEquals(PawnType.BLACK, board.getPawn(6, 5).getType());
+		Assertions.assertEquals(PawnType.WHITE, board.getTurn());
+	}
+
+	@Test
+	public void testBeatingIsObligatory() {
+		Board<Pawn> board = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, List.of(
+				new PawnImpl(PawnType.BLACK, new Position(2, 1), false, null),
+				new PawnImpl(PawnType.WHITE, new Position(3, 2), false, null)));
+
+		board.move(board.getPawn(2, 1), new Position(3, 0), true);
+
+		Assertions.assertNotNull(board.getPawn(2, 1));
+		Assertions.assertNull(board.getPawn(3, 0));
+	}
+
+}
@@ -0,0 +1,73 @@
+package pl.games.checkers.model;
+
+import pl.games.checkers.GameStates;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.ui.Checkerboard;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTest {
+
+	@Test
+	public void testSameHashOfBoardImplementations() {
+		Board<Pawn> pawnBoard = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, GameStates.INITIAL.getInitState());
+		BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+
+		Assertions.assertEquals(Zobrist.hash(pawnBoard), pawnBoard.hash());
+		Assertions.assertEquals(pawnBoard.hash(), bitBoard.hash());
+	}
+
+	@Test
+	public void testHashFollowsMoves() {
+		BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+		Board<Pawn> pawnBoard = bitBoard.toPawnBoard();
+		long initial = bitBoard.hash();
+		long[] moves = new long[MoveGenerator.MAX_MOVES];
+		long[] played = new long[40];
+		Random random = new Random(7);
+
+		int plies = 0;
+		for (; plies < played.length; plies++) {
+			int count = MoveGenerator.generate(bitBoard, bitBoard.getTurn(), moves);
+			if (count == 0) {
+				break;
+			}
+			played[plies] = moves[random.nextInt(count)];
+			bitBoard.makeMove(played[plies]);
+			pawnBoard.makeMove(played[plies]);
+
+			Assertions.assertEquals(Zobrist.hash(bitBoard), bitBoard.hash());
+			Assertions.assertEquals(bitBoard.hash(), pawnBoard.hash());
+		}
+
+		while (plies-- > 0) {
+			bitBoard.unmakeMove(played[plies]);
+		}
+		Assertions.assertEquals(initial, bitBoard.hash());
+	}
+
+	@Test
+	public void testHashFollowsBoardMove() {
+		Board<Pawn> pawnBoard = new PawnBoard(Checkerboard.HEIGHT, Checkerboard.WIDTH, GameStates.INITIAL.getInitState());
+		Pawn pawn = pawnBoard.getPawn(2, 1);
+
+		pawnBoard.move(pawn, new Position(3, 2), true);
+
+		Assertions.assertEquals(PawnType.WHITE, pawnBoard.getTurn());
+		Assertions.assertEquals(Zobrist.hash(pawnBoard), pawnBoard.hash());
+	}
+
+	@Test
+	public void testTurnChangesHash() {
+		BitBoard bitBoard = new BitBoard(GameStates.INITIAL.getInitState());
+		long white = bitBoard.hash();
+
+		bitBoard.setTurn(PawnType.BLACK);
+
+		Assertions.assertNotEquals(white, bitBoard.hash());
+	}
+
+}
@@ -0,0 +1,100 @@
+package pl.games.checkers.protocol;
+
+import pl.games.checkers.ai.EngineExecutor;
+import pl.games.checkers.ai.MoveGenerator;
+import pl.games.checkers.model.BitBoard;
+import pl.games.checkers.model.BitMove;
+import pl.games.checkers.model.PawnType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProtocolTest {
+
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+	private final EngineExecutor executor = new EngineExecutor(1);
+	private final Protocol protocol = new Protocol(new PrintStream(output, true, StandardCharsets.UTF_8), executor);
+
+	@AfterEach
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testHandshakeAndPosition() {
+		protocol.execute("checkers");
+		protocol.execute("isready");
+		protocol.execute("position startpos moves 22-18 11-15");
+		protocol.execute("board");
+
+		List<String> lines = lines();
+		Assertions.assertEquals(List.of("id name " + Protocol.NAME, "checkersok", "readyok"), lines.subList(0, 3));
+		Assertions.assertEquals("fen W:W18,21,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,12,15",
+				lines.get(lines.size() - 1));
+	}
+
+	@Test
+	public void testFen() {
+		BitBoard board = Protocol.parseFen("B:W18,K30:BK1,2");
+
+		Assertions.assertEquals(PawnType.BLACK, board.getTurn());
+		Assertions.assertEquals(2, Integer.bitCount(board.kings()));
+		Assertions.assertEquals("B:W18,K30:BK1,2", Protocol.fen(board));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Protocol.parseFen("W:W18:B18"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Protocol.parseFen("X:W18"));
+	}
+
+	@Test
+	public void testGoToDepth() {
+		protocol.execute("position startpos");
+		protocol.execute("go depth 3");
+		protocol.stop();
+
+		List<String> lines = lines();
+		Assertions.assertTrue(lines.get(0).startsWith("info depth 1 score "), lines::toString);
+		Assertions.assertTrue(lines.stream().anyMatch(line -> line.startsWith("info depth 3 ")), lines::toString);
+		String bestMove = lines.get(lines.size() - 1);
+		Assertions.assertTrue(bestMove.startsWith("bestmove "), lines::toString);
+
+		BitBoard board = Protocol.parseFen("W:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12");
+		long move = MoveGenerator.parse(board, bestMove.substring("bestmove ".length()));
+		Assertions.assertNotEquals(BitMove.NONE, move);
+	}
+
+	@Test
+	public void testStopInfiniteSearch() throws InterruptedException {
+		protocol.execute("go infinite");
+		Thread.sleep(200);
+		protocol.execute("stop");
+
+		List<String> lines = lines();
+		Assertions.assertTrue(lines.get(lines.size() - 1).matches("bestmove \\d+[-x]\\d+"), lines::toString);
+		Assertions.assertFalse(protocol.execute("quit"));
+	}
+
+	@Test
+	public void testWrongCommandsAreIgnored() {
+		protocol.execute("position startpos moves 22-18 18-14");
+		protocol.execute("jump");
+		protocol.execute("go depth");
+		protocol.execute("board");
+
+		List<String> lines = lines();
+		Assertions.assertEquals("info string illegal move 18-14", lines.get(0));
+		Assertions.assertEquals("info string unknown command jump", lines.get(1));
+		Assertions.assertEquals("info string value of depth expected", lines.get(2));
+		Assertions.assertEquals("fen W:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12", lines.get(lines.size() - 1));
+	}
+
+	private List<String> lines() {
+		return Arrays.asList(output.toString(StandardCharsets.UTF_8).split("\\R"));
+	}
+
+}